@@ -0,0 +1,46 @@
+package com.ingemark.movies.benchmark;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.ingemark.movies.config.ComaBigDecimalDeserializer;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ComaBigDecimalDeserializerBenchmark {
+
+    private static final byte[] HNB_RATE = """
+            {"broj_tecajnice":"32","datum_primjene":"2025-02-14","drzava":"SAD","drzava_iso":"USA","kupovni_tecaj":"1,040600","prodajni_tecaj":"1,037400","sifra_valute":"840","srednji_tecaj":"1,039000","valuta":"USD"}
+            """.getBytes(StandardCharsets.UTF_8);
+
+    private ObjectReader reader;
+
+    @Setup
+    public void setup() {
+        reader = Jackson2ObjectMapperBuilder.json()
+                .failOnUnknownProperties(false)
+                .build()
+                .readerFor(Rate.class);
+    }
+
+    @Benchmark
+    public BigDecimal deserialize() throws IOException {
+        return reader.<Rate>readValue(HNB_RATE).srednjiTecaj();
+    }
+
+    public record Rate(
+            @JsonProperty("srednji_tecaj") @JsonDeserialize(using = ComaBigDecimalDeserializer.class) BigDecimal srednjiTecaj
+    ) {
+    }
+}
@@ -0,0 +1,141 @@
+package com.ingemark.movies.benchmark;
+
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.ingemark.movies.MoviesApplication;
+import com.ingemark.movies.integration.configuration.ContainersConfig;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.options;
+
+/**
+ * Load test for the request execution model on the real endpoints: JPA and the Hikari pool against Postgres, and
+ * {@link com.ingemark.movies.service.ExchangeRateProvider} against a stubbed HNB that answers in 100 ms. With platform
+ * threads the server keeps at most {@code server.tomcat.threads.max} requests in flight, with virtual threads it
+ * takes the whole client load and the connection pool becomes the limit.
+ * <p>
+ * {@code pricedByDate} prices with a random one of {@code PAST_DAYS} days fetched during setup, so it reads them
+ * from the exchange rate history. Fetching them under load would only measure the HNB bulkhead turning calls away.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Threads(400)
+@Fork(1)
+public class ConcurrencyCeilingBenchmark {
+
+    private static final int MOVIES = 1_000;
+    private static final int PAST_DAYS = 30;
+    private static final LocalDate FIRST_PAST_DAY = LocalDate.of(2025, 1, 1);
+    private static final String RATES = """
+            [{"broj_tecajnice":"32","datum_primjene":"2025-02-14","drzava":"SAD","drzava_iso":"USA","kupovni_tecaj":"1,040600","prodajni_tecaj":"1,037400","sifra_valute":"840","srednji_tecaj":"1,039000","valuta":"USD"}]
+            """;
+
+    @Param({"false", "true"})
+    public boolean virtualThreads;
+
+    private WireMockServer hnb;
+    private ConfigurableApplicationContext context;
+    private HttpClient client;
+    private String baseUrl;
+    private List<UUID> ids;
+    private final AtomicLong codes = new AtomicLong(MOVIES);
+
+    @Setup
+    public void setup() throws IOException, InterruptedException {
+        hnb = new WireMockServer(options().dynamicPort().containerThreads(1000).jettyAcceptors(4));
+        hnb.start();
+        hnb.stubFor(get(urlPathEqualTo("/tecajn-eur/v3")).willReturn(ok(RATES)
+                .withHeader("Content-Type", "application/json")
+                .withFixedDelay(100)));
+
+        System.setProperty("spring.devtools.restart.enabled", "false");
+        context = SpringApplication.from(MoviesApplication::main)
+                .with(ContainersConfig.class)
+                .run("--spring.profiles.active=integration",
+                        "--spring.docker.compose.enabled=false",
+                        "--server.port=0",
+                        "--server.tomcat.threads.max=50",
+                        "--spring.threads.virtual.enabled=" + virtualThreads,
+                        "--hnb.url=" + hnb.baseUrl(),
+                        "--hnb.rate.initial-delay=PT1H")
+                .getApplicationContext();
+
+        var jdbcTemplate = context.getBean(JdbcTemplate.class);
+        ids = IntStream.range(0, MOVIES).mapToObj(i -> UUID.randomUUID()).toList();
+        jdbcTemplate.update("DELETE FROM movie");
+        jdbcTemplate.batchUpdate("INSERT INTO movie (id, code, name, price, is_available) VALUES (?, ?, ?, ?, ?)",
+                IntStream.range(0, MOVIES)
+                        .mapToObj(i -> new Object[]{ids.get(i), "%010d".formatted(i), "Movie " + i, BigDecimal.valueOf(1000 + i, 2), true})
+                        .toList());
+
+        var port = ((ServletWebServerApplicationContext) context).getWebServer().getPort();
+        baseUrl = "http://localhost:" + port + "/movies";
+        client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        // the current rate list is held and the past ones are stored from here on
+        send(HttpRequest.newBuilder(URI.create(baseUrl + "?limit=1")));
+        for (int i = 0; i < PAST_DAYS; i++) {
+            send(HttpRequest.newBuilder(URI.create(baseUrl + "/" + ids.getFirst() + "?date=" + FIRST_PAST_DAY.plusDays(i))));
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+        hnb.stop();
+    }
+
+    @Benchmark
+    public int getMovie() throws IOException, InterruptedException {
+        var id = ids.get(ThreadLocalRandom.current().nextInt(MOVIES));
+        return send(HttpRequest.newBuilder(URI.create(baseUrl + "/" + id)));
+    }
+
+    @Benchmark
+    public int listPage() throws IOException, InterruptedException {
+        return send(HttpRequest.newBuilder(URI.create(baseUrl + "?limit=20")));
+    }
+
+    @Benchmark
+    public int pricedByDate() throws IOException, InterruptedException {
+        var date = FIRST_PAST_DAY.plusDays(ThreadLocalRandom.current().nextInt(PAST_DAYS));
+        return send(HttpRequest.newBuilder(URI.create(baseUrl + "/" + ids.getFirst() + "?date=" + date)));
+    }
+
+    @Benchmark
+    public int createMovie() throws IOException, InterruptedException {
+        var body = """
+                {"code":"%010d","name":"Load","price_eur":10.5,"is_available":true}""".formatted(codes.getAndIncrement());
+        return send(HttpRequest.newBuilder(URI.create(baseUrl))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body)));
+    }
+
+    private int send(HttpRequest.Builder request) throws IOException, InterruptedException {
+        var status = client.send(request.header("Accept", "application/json").build(), HttpResponse.BodyHandlers.discarding()).statusCode();
+        if (status >= 300) {
+            throw new IllegalStateException("Unexpected status " + status);
+        }
+        return status;
+    }
+}
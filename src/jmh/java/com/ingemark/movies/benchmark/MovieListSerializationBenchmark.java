@@ -0,0 +1,135 @@
+package com.ingemark.movies.benchmark;
+
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import com.ingemark.movies.model.dto.MovieDto;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Serializing a movie listing through bean introspection, with and without Blackbird, against the hand-written
+ * {@link com.ingemark.movies.config.MovieDtoSerializer}, written as one list or element by element through a single
+ * generator the way {@code GET /movies} streams it. {@code gzipped} adds the cost of response compression,
+ * {@code smile} and {@code cbor} stream the same listing in the binary formats.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class MovieListSerializationBenchmark {
+
+    @Param({"10000", "1000000"})
+    public int size;
+
+    private List<MovieDto> movies;
+    private ObjectWriter reflective;
+    private ObjectWriter blackbird;
+    private ObjectMapper mapper;
+    private ObjectWriter handWritten;
+    private ObjectWriter movieWriter;
+    private ObjectMapper smileMapper;
+    private ObjectWriter smileWriter;
+    private ObjectMapper cborMapper;
+    private ObjectWriter cborWriter;
+
+    @Setup
+    public void setup() {
+        var rate = new BigDecimal("1.039000");
+        movies = IntStream.range(0, size)
+                .mapToObj(i -> MovieDto.builder()
+                        .id(UUID.randomUUID())
+                        .code("%010d".formatted(i))
+                        .name("Movie " + i)
+                        .priceEur(BigDecimal.valueOf(1000 + i, 2))
+                        .priceUsd(BigDecimal.valueOf(1000 + i, 2).multiply(rate).setScale(2, RoundingMode.HALF_EVEN))
+                        .isAvailable(i % 2 == 0)
+                        .build())
+                .toList();
+
+        reflective = Jackson2ObjectMapperBuilder.json()
+                .mixIn(MovieDto.class, ReflectiveMovieDto.class)
+                .build()
+                .writer();
+        blackbird = Jackson2ObjectMapperBuilder.json()
+                .mixIn(MovieDto.class, ReflectiveMovieDto.class)
+                .modulesToInstall(new BlackbirdModule())
+                .build()
+                .writer();
+        mapper = Jackson2ObjectMapperBuilder.json().build();
+        handWritten = mapper.writer();
+        movieWriter = mapper.writerFor(MovieDto.class).without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        smileMapper = Jackson2ObjectMapperBuilder.json().factory(new SmileFactory()).build();
+        smileWriter = smileMapper.writerFor(MovieDto.class).without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        cborMapper = Jackson2ObjectMapperBuilder.json().factory(new CBORFactory()).build();
+        cborWriter = cborMapper.writerFor(MovieDto.class).without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    }
+
+    @Benchmark
+    public void reflection() throws IOException {
+        reflective.writeValue(OutputStream.nullOutputStream(), movies);
+    }
+
+    @Benchmark
+    public void blackbird() throws IOException {
+        blackbird.writeValue(OutputStream.nullOutputStream(), movies);
+    }
+
+    @Benchmark
+    public void handWritten() throws IOException {
+        handWritten.writeValue(OutputStream.nullOutputStream(), movies);
+    }
+
+    @Benchmark
+    public void streamed() throws IOException {
+        stream(mapper, movieWriter, OutputStream.nullOutputStream());
+    }
+
+    @Benchmark
+    public void gzipped() throws IOException {
+        try (var gzip = new GZIPOutputStream(OutputStream.nullOutputStream(), 8192)) {
+            stream(mapper, movieWriter, gzip);
+        }
+    }
+
+    @Benchmark
+    public void smile() throws IOException {
+        stream(smileMapper, smileWriter, OutputStream.nullOutputStream());
+    }
+
+    @Benchmark
+    public void cbor() throws IOException {
+        stream(cborMapper, cborWriter, OutputStream.nullOutputStream());
+    }
+
+    private void stream(ObjectMapper mapper, ObjectWriter writer, OutputStream outputStream) throws IOException {
+        try (var generator = mapper.createGenerator(outputStream)) {
+            generator.writeStartArray();
+            for (var movie : movies) {
+                writer.writeValue(generator, movie);
+            }
+            generator.writeEndArray();
+        }
+    }
+
+    @JsonSerialize(using = JsonSerializer.None.class)
+    abstract static class ReflectiveMovieDto {
+    }
+}
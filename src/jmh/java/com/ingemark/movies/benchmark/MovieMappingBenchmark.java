@@ -0,0 +1,64 @@
+package com.ingemark.movies.benchmark;
+
+import com.ingemark.movies.model.Movie;
+import com.ingemark.movies.model.MovieRow;
+import com.ingemark.movies.model.dto.MovieDto;
+import com.ingemark.movies.service.PriceConverter;
+import com.ingemark.movies.service.Pricing;
+import com.ingemark.movies.service.RateSnapshot;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mapping one listed row to its response the way the read path does, through {@link Pricing#toDto(MovieRow)},
+ * priced in USD only and in two more currencies.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MovieMappingBenchmark {
+
+    private MovieRow row;
+    private MovieDto movieDto;
+    private Pricing usdOnly;
+    private Pricing withCurrencies;
+
+    @Setup
+    public void setup() {
+        row = new MovieRow(UUID.randomUUID(), "1234567890", "Movie 1", new BigDecimal("12.10"), true, 0L);
+        var rate = new RateSnapshot(Map.of(
+                RateSnapshot.USD, new BigDecimal("1.039000"),
+                "GBP", new BigDecimal("0.830250"),
+                "JPY", new BigDecimal("159.480000")), LocalDate.of(2025, 2, 14), Instant.now());
+        var rates = new PriceConverter(2, RoundingMode.HALF_EVEN).ratesFor(rate);
+        usdOnly = new Pricing(rates, List.of());
+        withCurrencies = new Pricing(rates, List.of("GBP", "JPY"));
+        movieDto = usdOnly.toDto(row);
+    }
+
+    @Benchmark
+    public MovieDto toDto() {
+        return usdOnly.toDto(row);
+    }
+
+    @Benchmark
+    public MovieDto toDtoWithCurrencies() {
+        return withCurrencies.toDto(row);
+    }
+
+    @Benchmark
+    public Movie toMovie() {
+        return movieDto.toMovie();
+    }
+}
@@ -0,0 +1,97 @@
+package com.ingemark.movies.benchmark;
+
+import com.ingemark.movies.MoviesApplication;
+import com.ingemark.movies.integration.configuration.ContainersConfig;
+import com.ingemark.movies.model.dto.MovieDto;
+import com.ingemark.movies.repository.MovieFilter;
+import com.ingemark.movies.repository.MovieRepository;
+import com.ingemark.movies.service.PriceConverter;
+import com.ingemark.movies.service.Pricing;
+import com.ingemark.movies.service.RateSnapshot;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Listing the catalogue as managed entities, the way {@code getMovies} used to, against the
+ * {@link com.ingemark.movies.model.MovieRow} projection in a read-only transaction.
+ * <p>
+ * Run with {@code -Djmh.args="MovieReadPath -prof gc"} to get the allocation rate next to the latency.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class MovieReadPathBenchmark {
+
+    @Param({"1000", "10000"})
+    public int rows;
+
+    private ConfigurableApplicationContext context;
+    private MovieRepository movieRepository;
+    private TransactionTemplate readWrite;
+    private TransactionTemplate readOnly;
+    private Pricing pricing;
+
+    @Setup
+    public void setup() {
+        System.setProperty("spring.devtools.restart.enabled", "false");
+        context = SpringApplication.from(MoviesApplication::main)
+                .with(ContainersConfig.class)
+                .run("--spring.profiles.active=integration",
+                        "--spring.main.web-application-type=none",
+                        "--spring.docker.compose.enabled=false",
+                        "--hnb.rate.initial-delay=PT1H")
+                .getApplicationContext();
+        movieRepository = context.getBean(MovieRepository.class);
+
+        var transactionManager = context.getBean(PlatformTransactionManager.class);
+        readWrite = new TransactionTemplate(transactionManager);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        var rate = new RateSnapshot(Map.of(RateSnapshot.USD, new BigDecimal("1.039000")), LocalDate.of(2025, 2, 14), Instant.now());
+        pricing = new Pricing(context.getBean(PriceConverter.class).ratesFor(rate), List.of());
+
+        var jdbcTemplate = context.getBean(JdbcTemplate.class);
+        jdbcTemplate.update("DELETE FROM movie");
+        jdbcTemplate.batchUpdate("INSERT INTO movie (id, code, name, price, is_available) VALUES (?, ?, ?, ?, ?)",
+                IntStream.range(0, rows)
+                        .mapToObj(i -> new Object[]{UUID.randomUUID(), "%010d".formatted(i), "Movie " + i, BigDecimal.valueOf(1000 + i, 2), i % 2 == 0})
+                        .toList());
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<MovieDto> entities() {
+        return readWrite.execute(status -> movieRepository.findAll()
+                .stream()
+                .map(pricing::toDto)
+                .toList());
+    }
+
+    @Benchmark
+    public List<MovieDto> projections() {
+        return readOnly.execute(status -> movieRepository.findRows(MovieFilter.NONE, null, null)
+                .stream()
+                .map(pricing::toDto)
+                .toList());
+    }
+}
@@ -0,0 +1,80 @@
+package com.ingemark.movies.benchmark;
+
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.ingemark.movies.MoviesApplication;
+import com.ingemark.movies.integration.configuration.ContainersConfig;
+import com.ingemark.movies.model.dto.MovieDto;
+import com.ingemark.movies.repository.MovieFilter;
+import com.ingemark.movies.service.MoviesService;
+import com.ingemark.movies.service.Pricing;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.options;
+
+/**
+ * End-to-end {@link MoviesService#getMovies(MovieFilter, Pricing)} against a Testcontainers Postgres and a WireMock stub of HNB.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class MoviesServiceBenchmark {
+
+    @Param({"1000", "10000"})
+    public int rows;
+
+    private WireMockServer hnb;
+    private ConfigurableApplicationContext context;
+    private MoviesService moviesService;
+
+    @Setup
+    public void setup() {
+        hnb = new WireMockServer(options().dynamicPort());
+        hnb.start();
+        hnb.stubFor(get("/tecajn-eur/v3").willReturn(ok(
+                """
+                        [{"broj_tecajnice":"32","datum_primjene":"2025-02-14","drzava":"SAD","drzava_iso":"USA","kupovni_tecaj":"1,040600","prodajni_tecaj":"1,037400","sifra_valute":"840","srednji_tecaj":"1,039000","valuta":"USD"}]
+                        """)
+                .withHeader("Content-Type", "application/json")));
+
+        System.setProperty("spring.devtools.restart.enabled", "false");
+        context = SpringApplication.from(MoviesApplication::main)
+                .with(ContainersConfig.class)
+                .run("--spring.profiles.active=integration",
+                        "--spring.main.web-application-type=none",
+                        "--spring.docker.compose.enabled=false",
+                        "--hnb.url=" + hnb.baseUrl())
+                .getApplicationContext();
+        moviesService = context.getBean(MoviesService.class);
+
+        var jdbcTemplate = context.getBean(JdbcTemplate.class);
+        jdbcTemplate.update("DELETE FROM movie");
+        jdbcTemplate.batchUpdate("INSERT INTO movie (id, code, name, price, is_available) VALUES (?, ?, ?, ?, ?)",
+                IntStream.range(0, rows)
+                        .mapToObj(i -> new Object[]{UUID.randomUUID(), "%010d".formatted(i), "Movie " + i, BigDecimal.valueOf(1000 + i, 2), i % 2 == 0})
+                        .toList());
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+        hnb.stop();
+    }
+
+    @Benchmark
+    public List<MovieDto> getMovies() {
+        return moviesService.getMovies(MovieFilter.NONE, moviesService.resolvePricing(null, List.of()));
+    }
+}
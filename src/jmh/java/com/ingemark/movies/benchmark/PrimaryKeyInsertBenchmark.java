@@ -0,0 +1,149 @@
+package com.ingemark.movies.benchmark;
+
+import com.ingemark.movies.MoviesApplication;
+import com.ingemark.movies.integration.configuration.ContainersConfig;
+import com.ingemark.movies.model.UuidV7Generator;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.IterationParams;
+import org.openjdk.jmh.runner.IterationType;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+
+/**
+ * Insert throughput into a table shaped like {@code movie} that already holds {@code preloaded} rows, keyed by
+ * random version 4 or time-ordered version 7 UUIDs. Reported in rows per second.
+ * <p>
+ * The size, leaf density and fragmentation of the primary key index and the WAL written per row are reported as
+ * secondary results next to the throughput, so they end up in the JSON result, e.g.
+ * {@code -Djmh.args="PrimaryKeyInsert -rf json"}. Preloading takes a while, the table is filled once per trial.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 10)
+@Measurement(iterations = 5, time = 10)
+@Fork(1)
+public class PrimaryKeyInsertBenchmark {
+
+    private static final int BATCH_SIZE = 1000;
+    private static final String INSERT = "INSERT INTO pk_bench (id, code, name, price, is_available) VALUES (?, ?, ?, ?, ?)";
+
+    @Param({"v4", "v7"})
+    public String ids;
+
+    @Param({"2000000"})
+    public int preloaded;
+
+    private ConfigurableApplicationContext context;
+    private JdbcTemplate jdbcTemplate;
+    private Supplier<UUID> idGenerator;
+    private int next;
+
+    @Setup
+    public void setup() {
+        System.setProperty("spring.devtools.restart.enabled", "false");
+        context = SpringApplication.from(MoviesApplication::main)
+                .with(ContainersConfig.class)
+                .run("--spring.profiles.active=integration",
+                        "--spring.main.web-application-type=none",
+                        "--spring.docker.compose.enabled=false",
+                        "--hnb.rate.initial-delay=PT1H")
+                .getApplicationContext();
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+        idGenerator = "v7".equals(ids) ? UuidV7Generator::next : UUID::randomUUID;
+
+        jdbcTemplate.execute("CREATE EXTENSION IF NOT EXISTS pgstattuple");
+        jdbcTemplate.execute("DROP TABLE IF EXISTS pk_bench");
+        jdbcTemplate.execute("""
+                CREATE TABLE pk_bench (
+                    id UUID CONSTRAINT pk_bench_pkey PRIMARY KEY,
+                    code VARCHAR(10) NOT NULL,
+                    name VARCHAR(255) NOT NULL,
+                    price NUMERIC(10, 2) NOT NULL,
+                    is_available BOOLEAN NOT NULL
+                )
+                """);
+        while (next < preloaded) {
+            insertBatch();
+        }
+        jdbcTemplate.execute("VACUUM ANALYZE pk_bench");
+    }
+
+    @TearDown
+    public void tearDown() {
+        jdbcTemplate.execute("DROP TABLE pk_bench");
+        context.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public void insert(IndexCounters counters) {
+        insertBatch();
+    }
+
+    private void insertBatch() {
+        var first = next;
+        next += BATCH_SIZE;
+        List<Object[]> batch = IntStream.range(first, first + BATCH_SIZE)
+                .mapToObj(i -> new Object[]{idGenerator.get(), "%010d".formatted(i), "Movie " + i, BigDecimal.valueOf(1000 + i % 100_000, 2), i % 2 == 0})
+                .toList();
+        jdbcTemplate.batchUpdate(INSERT, batch);
+    }
+
+    private long currentWal() {
+        return jdbcTemplate.queryForObject("SELECT (pg_current_wal_lsn() - '0/0'::pg_lsn)::bigint", Long.class);
+    }
+
+    /**
+     * Index shape and WAL volume as secondary results. JMH sums event counters over the measurement iterations, so
+     * they stay zero until the last one, which records the state of the index at the end of the trial and the WAL
+     * written per row over all measurement iterations.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class IndexCounters {
+
+        public long indexSizeBytes;
+        public double avgLeafDensity;
+        public double leafFragmentation;
+        public long walBytesPerRow;
+
+        private int iterations;
+        private long walAtStart;
+        private int rowsAtStart;
+
+        @Setup(Level.Iteration)
+        public void reset(IterationParams iteration, PrimaryKeyInsertBenchmark benchmark) {
+            indexSizeBytes = 0;
+            avgLeafDensity = 0;
+            leafFragmentation = 0;
+            walBytesPerRow = 0;
+            if (iteration.getType() == IterationType.MEASUREMENT && iterations++ == 0) {
+                walAtStart = benchmark.currentWal();
+                rowsAtStart = benchmark.next;
+            }
+        }
+
+        @TearDown(Level.Iteration)
+        public void record(IterationParams iteration, PrimaryKeyInsertBenchmark benchmark) {
+            if (iteration.getType() != IterationType.MEASUREMENT || iterations < iteration.getCount()) {
+                return;
+            }
+            var rows = benchmark.next - rowsAtStart;
+            walBytesPerRow = rows == 0 ? 0 : (benchmark.currentWal() - walAtStart) / rows;
+            var index = benchmark.jdbcTemplate.queryForMap(
+                    "SELECT index_size, avg_leaf_density, leaf_fragmentation FROM pgstatindex('pk_bench_pkey')");
+            indexSizeBytes = ((Number) index.get("index_size")).longValue();
+            avgLeafDensity = ((Number) index.get("avg_leaf_density")).doubleValue();
+            leafFragmentation = ((Number) index.get("leaf_fragmentation")).doubleValue();
+        }
+    }
+}
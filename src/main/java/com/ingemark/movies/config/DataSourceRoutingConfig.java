@@ -0,0 +1,80 @@
+package com.ingemark.movies.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.jdbc.JdbcConnectionDetails;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Replaces the auto-configured pool with a primary and a replica pool behind a {@link ReplicaRoutingDataSource}
+ * once {@code movies.datasource.replica.enabled} is set. The primary keeps its connection details and
+ * {@code spring.datasource.hikari.*} settings, the replica pool is tuned with {@code movies.datasource.replica.hikari.*}.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(prefix = "movies.datasource.replica", name = "enabled", havingValue = "true")
+public class DataSourceRoutingConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(ObjectProvider<JdbcConnectionDetails> connectionDetails,
+                                              DataSourceProperties properties) {
+        var details = connectionDetails.getIfAvailable();
+        var builder = details == null
+                ? properties.initializeDataSourceBuilder()
+                : DataSourceBuilder.create()
+                .url(details.getJdbcUrl())
+                .username(details.getUsername())
+                .password(details.getPassword())
+                .driverClassName(details.getDriverClassName());
+        var dataSource = builder.type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean
+    @ConfigurationProperties("movies.datasource.replica.hikari")
+    public HikariDataSource replicaDataSource(@Value("${movies.datasource.replica.url}") String url,
+                                              @Value("${movies.datasource.replica.username:${spring.datasource.username:}}") String username,
+                                              @Value("${movies.datasource.replica.password:${spring.datasource.password:}}") String password) {
+        var dataSource = DataSourceBuilder.create()
+                .type(HikariDataSource.class)
+                .url(url)
+                .username(username)
+                .password(password)
+                .build();
+        dataSource.setPoolName("replica");
+        dataSource.setReadOnly(true);
+        // start, and keep serving from the primary, while the replica is down
+        dataSource.setInitializationFailTimeout(-1);
+        dataSource.setConnectionTimeout(Duration.ofSeconds(1).toMillis());
+        return dataSource;
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primaryDataSource") HikariDataSource primaryDataSource,
+                                 @Qualifier("replicaDataSource") HikariDataSource replicaDataSource,
+                                 @Value("${movies.datasource.read-your-writes-window}") Duration readYourWritesWindow,
+                                 @Value("${movies.datasource.replica.retry-after}") Duration retryAfter,
+                                 MeterRegistry meterRegistry) {
+        var routing = new ReplicaRoutingDataSource(primaryDataSource, replicaDataSource, readYourWritesWindow, retryAfter);
+        FunctionCounter.builder("movies.datasource.replica.fallbacks", routing, ReplicaRoutingDataSource::fallbacks)
+                .description("Read-only connections served by the primary because the replica was unavailable")
+                .register(meterRegistry);
+        return new LazyConnectionDataSourceProxy(routing);
+    }
+}
@@ -0,0 +1,69 @@
+package com.ingemark.movies.config;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import com.ingemark.movies.model.dto.MovieDto;
+
+import java.io.IOException;
+
+/**
+ * Writes {@link MovieDto} field by field, producing the same JSON as its annotations describe without
+ * going through bean introspection for every element of a large listing. Field names are pre-encoded.
+ */
+public class MovieDtoSerializer extends StdSerializer<MovieDto> {
+
+    private static final SerializedString ID = new SerializedString("id");
+    private static final SerializedString CODE = new SerializedString("code");
+    private static final SerializedString NAME = new SerializedString("name");
+    private static final SerializedString PRICE_EUR = new SerializedString("price_eur");
+    private static final SerializedString PRICE_USD = new SerializedString("price_usd");
+    private static final SerializedString PRICES = new SerializedString("prices");
+    private static final SerializedString IS_AVAILABLE = new SerializedString("is_available");
+
+    public MovieDtoSerializer() {
+        super(MovieDto.class);
+    }
+
+    @Override
+    public void serialize(MovieDto movie, JsonGenerator generator, SerializerProvider provider) throws IOException {
+        generator.writeStartObject(movie);
+
+        generator.writeFieldName(ID);
+        if (movie.getId() == null) {
+            generator.writeNull();
+        } else {
+            generator.writeString(movie.getId().toString());
+        }
+        generator.writeFieldName(CODE);
+        generator.writeString(movie.getCode());
+        generator.writeFieldName(NAME);
+        generator.writeString(movie.getName());
+        generator.writeFieldName(PRICE_EUR);
+        generator.writeNumber(movie.getPriceEur());
+
+        if (movie.getPriceUsd() != null) {
+            generator.writeFieldName(PRICE_USD);
+            generator.writeNumber(movie.getPriceUsd());
+        }
+        if (movie.getPrices() != null && !movie.getPrices().isEmpty()) {
+            generator.writeFieldName(PRICES);
+            generator.writeStartObject();
+            for (var price : movie.getPrices().entrySet()) {
+                generator.writeFieldName(price.getKey());
+                generator.writeNumber(price.getValue());
+            }
+            generator.writeEndObject();
+        }
+
+        generator.writeFieldName(IS_AVAILABLE);
+        if (movie.getIsAvailable() == null) {
+            generator.writeNull();
+        } else {
+            generator.writeBoolean(movie.getIsAvailable());
+        }
+
+        generator.writeEndObject();
+    }
+}
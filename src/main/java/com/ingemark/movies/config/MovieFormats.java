@@ -0,0 +1,107 @@
+package com.ingemark.movies.config;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.ingemark.movies.model.dto.MovieDto;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.stereotype.Component;
+import org.springframework.util.MimeTypeUtils;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * The encodings movies are exchanged in, JSON, Smile and CBOR, with a reader and a writer for each. Endpoints that
+ * stream past the message converters use it to honour {@code Accept} and {@code Content-Type} the same way.
+ * JSON comes first, so it wins whenever the client has no preference.
+ */
+@Component
+public class MovieFormats {
+
+    public static final String SMILE_VALUE = "application/x-jackson-smile";
+    public static final MediaType SMILE = MediaType.valueOf(SMILE_VALUE);
+
+    private final Map<MediaType, Format> formats = new LinkedHashMap<>();
+
+    public MovieFormats(ObjectMapper objectMapper,
+                        MappingJackson2SmileHttpMessageConverter smileConverter,
+                        MappingJackson2CborHttpMessageConverter cborConverter) {
+        formats.put(MediaType.APPLICATION_JSON, Format.of(objectMapper));
+        formats.put(SMILE, Format.of(smileConverter.getObjectMapper()));
+        formats.put(MediaType.APPLICATION_CBOR, Format.of(cborConverter.getObjectMapper()));
+    }
+
+    /**
+     * The format best matching an {@code Accept} header, by quality and then by our own preference.
+     * Falls back to JSON, unacceptable headers are already rejected by the mapping's {@code produces}.
+     */
+    public MediaType negotiate(String accept) {
+        if (accept == null || accept.isBlank()) {
+            return MediaType.APPLICATION_JSON;
+        }
+
+        var accepted = MediaType.parseMediaTypes(accept);
+        MimeTypeUtils.sortBySpecificity(accepted);
+        for (var mediaType : accepted) {
+            if (mediaType.getQualityValue() == 0) {
+                continue;
+            }
+            for (var supported : formats.keySet()) {
+                if (mediaType.isCompatibleWith(supported)) {
+                    return supported;
+                }
+            }
+        }
+        return MediaType.APPLICATION_JSON;
+    }
+
+    /**
+     * Suffix that keeps the ETags of the binary representations apart from the JSON one.
+     */
+    public String etagSuffix(MediaType format) {
+        return MediaType.APPLICATION_JSON.equals(format) ? "" : "-" + format.getSubtype();
+    }
+
+    public JsonGenerator createGenerator(MediaType format, OutputStream outputStream) throws IOException {
+        return format(format).mapper().createGenerator(outputStream);
+    }
+
+    public ObjectWriter writer(MediaType format) {
+        return format(format).writer();
+    }
+
+    /**
+     * Reader for a request body of {@code contentType}. NDJSON and anything without a binary encoding read as JSON.
+     */
+    public ObjectReader reader(MediaType contentType) {
+        return format(contentType).reader();
+    }
+
+    private Format format(MediaType mediaType) {
+        if (mediaType != null) {
+            for (var format : formats.entrySet()) {
+                if (format.getKey().equalsTypeAndSubtype(mediaType)) {
+                    return format.getValue();
+                }
+            }
+        }
+        return formats.get(MediaType.APPLICATION_JSON);
+    }
+
+    private record Format(ObjectMapper mapper, ObjectWriter writer, ObjectReader reader) {
+
+        static Format of(ObjectMapper mapper) {
+            // writers are shared, flushing is left to the output buffer rather than done after every movie
+            return new Format(mapper,
+                    mapper.writerFor(MovieDto.class).without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE),
+                    mapper.readerFor(MovieDto.class));
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.ingemark.movies.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Sends read-only transactions to a streaming replica and everything else to the primary. Has to sit behind a
+ * {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}, so the connection is only fetched
+ * once the transaction has been marked read-only.
+ * <p>
+ * Reads stay on the primary for {@code readYourWritesWindow} after any write transaction of this instance commits,
+ * so a client reading back what it just wrote does not hit a replica that has not replayed it yet. When the replica
+ * cannot hand out a connection, reads fall back to the primary and the replica is left alone for
+ * {@code retryAfter}.
+ */
+@Slf4j
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    enum Target {
+        PRIMARY,
+        REPLICA
+    }
+
+    private final DataSource primary;
+    private final DataSource replica;
+    private final long readYourWritesWindowNanos;
+    private final long retryAfterNanos;
+
+    private final AtomicLong fallbacks = new AtomicLong();
+    private volatile long lastWriteCommit;
+    private volatile long replicaDownUntil;
+
+    public ReplicaRoutingDataSource(DataSource primary, DataSource replica, Duration readYourWritesWindow, Duration retryAfter) {
+        this.primary = primary;
+        this.replica = replica;
+        this.readYourWritesWindowNanos = readYourWritesWindow.toNanos();
+        this.retryAfterNanos = retryAfter.toNanos();
+
+        var now = System.nanoTime();
+        this.lastWriteCommit = now - readYourWritesWindowNanos;
+        this.replicaDownUntil = now;
+
+        setTargetDataSources(Map.of(Target.PRIMARY, primary, Target.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    public long fallbacks() {
+        return fallbacks.get();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (TransactionSynchronizationManager.isActualTransactionActive()) {
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        lastWriteCommit = System.nanoTime();
+                    }
+                });
+            }
+            return Target.PRIMARY;
+        }
+
+        var now = System.nanoTime();
+        if (now - lastWriteCommit < readYourWritesWindowNanos || now - replicaDownUntil < 0) {
+            return Target.PRIMARY;
+        }
+        return Target.REPLICA;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return connect(DataSource::getConnection);
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return connect(dataSource -> dataSource.getConnection(username, password));
+    }
+
+    private Connection connect(ConnectionSource source) throws SQLException {
+        var target = determineTargetDataSource();
+        if (target != replica) {
+            return source.from(target);
+        }
+
+        try {
+            return source.from(replica);
+        } catch (SQLException e) {
+            fallbacks.incrementAndGet();
+            replicaDownUntil = System.nanoTime() + retryAfterNanos;
+            log.warn("Replica unavailable, reading from the primary for the next {} ms", retryAfterNanos / 1_000_000, e);
+            return source.from(primary);
+        }
+    }
+
+    @FunctionalInterface
+    private interface ConnectionSource {
+
+        Connection from(DataSource dataSource) throws SQLException;
+    }
+}
\ No newline at end of file
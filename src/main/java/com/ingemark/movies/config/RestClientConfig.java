@@ -1,14 +1,33 @@
 package com.ingemark.movies.config;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
 import org.springframework.web.client.RestClient;
 
+import java.net.http.HttpClient;
+import java.time.Duration;
+
+/**
+ * HNB client backed by the JDK {@link HttpClient}. It keeps connections alive between calls and blocks on
+ * locks rather than monitors, so waiting requests do not pin carrier threads when virtual threads are enabled.
+ */
 @Configuration
 public class RestClientConfig {
 
     @Bean
-    public RestClient restClient() {
-        return RestClient.create();
+    public RestClient restClient(RestClient.Builder builder,
+                                 @Value("${hnb.client.connect-timeout}") Duration connectTimeout,
+                                 @Value("${hnb.client.read-timeout}") Duration readTimeout) {
+        var httpClient = HttpClient.newBuilder()
+                .connectTimeout(connectTimeout)
+                .version(HttpClient.Version.HTTP_1_1)
+                .build();
+
+        var requestFactory = new JdkClientHttpRequestFactory(httpClient);
+        requestFactory.setReadTimeout(readTimeout);
+
+        return builder.requestFactory(requestFactory).build();
     }
 }
@@ -1,44 +1,315 @@
 package com.ingemark.movies.controller;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.ingemark.movies.config.MovieFormats;
+import com.ingemark.movies.model.dto.BulkImportResult;
+import com.ingemark.movies.model.dto.CatalogueChange;
+import com.ingemark.movies.model.dto.CatalogueVersionDto;
 import com.ingemark.movies.model.dto.MovieDto;
+import com.ingemark.movies.model.dto.MovieLookupRequest;
+import com.ingemark.movies.model.dto.MovieLookupResult;
+import com.ingemark.movies.model.exception.Conflict;
 import com.ingemark.movies.model.exception.ServerError;
+import com.ingemark.movies.model.exception.UnprocessableEntity;
+import com.ingemark.movies.repository.MovieFilter;
+import com.ingemark.movies.service.CatalogueChangeFeed;
+import com.ingemark.movies.service.MovieBulkImportService;
 import com.ingemark.movies.service.MoviesService;
+import com.ingemark.movies.service.Pricing;
 import jakarta.validation.Valid;
-import lombok.RequiredArgsConstructor;
+import jakarta.validation.constraints.Min;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ETag;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.time.LocalDate;
 import java.util.List;
 import java.util.UUID;
+import java.util.function.Consumer;
 
 @RestController
 @RequestMapping("/movies")
-@RequiredArgsConstructor
 public class MoviesController {
 
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    public static final String RATE_DATE_HEADER = "X-Exchange-Rate-Date";
+    public static final String RATE_FETCHED_AT_HEADER = "X-Exchange-Rate-Fetched-At";
+    public static final String RATE_AGE_HEADER = "X-Exchange-Rate-Age";
+    public static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    public static final String IDEMPOTENT_REPLAYED_HEADER = "Idempotent-Replayed";
+    public static final String NEXT_OFFSET_HEADER = "X-Next-Offset";
+    public static final String LAST_EVENT_ID_HEADER = "Last-Event-ID";
+
     private final MoviesService moviesService;
+    private final MovieBulkImportService movieBulkImportService;
+    private final CatalogueChangeFeed catalogueChangeFeed;
+    private final MovieFormats movieFormats;
+    private final ObjectWriter ndjsonWriter;
+    private final int defaultPageLimit;
+    private final int maxPageLimit;
+    private final CacheControl cacheControl;
+
+    public MoviesController(MoviesService moviesService,
+                            MovieBulkImportService movieBulkImportService,
+                            CatalogueChangeFeed catalogueChangeFeed,
+                            MovieFormats movieFormats,
+                            @Value("${movies.page.default-limit}") int defaultPageLimit,
+                            @Value("${movies.page.max-limit}") int maxPageLimit,
+                            @Value("${movies.http.cache-max-age}") Duration cacheMaxAge) {
+        this.moviesService = moviesService;
+        this.movieBulkImportService = movieBulkImportService;
+        this.catalogueChangeFeed = catalogueChangeFeed;
+        this.movieFormats = movieFormats;
+        this.ndjsonWriter = movieFormats.writer(MediaType.APPLICATION_JSON).withRootValueSeparator("\n");
+        this.defaultPageLimit = defaultPageLimit;
+        this.maxPageLimit = maxPageLimit;
+        this.cacheControl = CacheControl.maxAge(cacheMaxAge).cachePublic().mustRevalidate();
+    }
 
     @GetMapping(value = "/{movieId}")
-    public ResponseEntity<MovieDto> getMovie(@PathVariable UUID movieId) {
-        var movie = moviesService.getMovie(movieId);
+    public ResponseEntity<MovieDto> getMovie(@PathVariable UUID movieId,
+                                             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+                                             @RequestParam(required = false) List<String> currencies,
+                                             @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+                                             @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        var pricing = moviesService.resolvePricing(date, currencies);
+        var movie = moviesService.getMovie(movieId, pricing);
+
+        return movie.map(it -> conditional(it, pricing, movieFormats.negotiate(accept), ifNoneMatch))
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
 
-        return movie.map(ResponseEntity::ok)
+    @GetMapping(value = "/by-code/{code}")
+    public ResponseEntity<MovieDto> getMovieByCode(@PathVariable String code,
+                                                   @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+                                                   @RequestParam(required = false) List<String> currencies,
+                                                   @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+                                                   @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        var pricing = moviesService.resolvePricing(date, currencies);
+        var movie = moviesService.getMovieByCode(code, pricing);
+
+        return movie.map(it -> conditional(it, pricing, movieFormats.negotiate(accept), ifNoneMatch))
                 .orElseGet(() -> ResponseEntity.notFound().build());
     }
 
-    @GetMapping
-    public ResponseEntity<List<MovieDto>> getAllMovies() {
-        return ResponseEntity.ok(moviesService.getMovies());
+    /**
+     * The whole listing is written as an array straight from a database cursor, so neither the rows nor
+     * the serialized body are held in memory. A page is read up front, which keeps an invalid cursor a 400.
+     * JSON by default, Smile or CBOR when the client asks for them.
+     */
+    @GetMapping(produces = {MediaType.APPLICATION_JSON_VALUE, MovieFormats.SMILE_VALUE, MediaType.APPLICATION_CBOR_VALUE})
+    public ResponseEntity<StreamingResponseBody> getAllMovies(MovieFilter filter,
+                                                              @RequestParam(required = false) @Min(1) Integer limit,
+                                                              @RequestParam(required = false) String cursor,
+                                                              @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+                                                              @RequestParam(required = false) List<String> currencies,
+                                                              @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+                                                              @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        var format = movieFormats.negotiate(accept);
+        var pricing = moviesService.resolvePricing(date, currencies);
+        var etag = etag("catalogue-" + moviesService.getCatalogueVersion(), pricing, format);
+        if (matches(ifNoneMatch, etag)) {
+            return notModified(etag);
+        }
+
+        if (limit == null && cursor == null) {
+            return cacheable(etag, pricing)
+                    .contentType(format)
+                    .body(array(format, consumer -> moviesService.streamMovies(filter, pricing, consumer)));
+        }
+
+        var page = moviesService.getMoviePage(filter, cursor, Math.min(limit == null ? defaultPageLimit : limit, maxPageLimit), pricing);
+        var response = cacheable(etag, pricing);
+        if (page.nextCursor() != null) {
+            response.header(NEXT_CURSOR_HEADER, page.nextCursor());
+        }
+        return response.contentType(format)
+                .body(array(format, page.movies()::forEach));
+    }
+
+    @GetMapping(value = "/version")
+    public ResponseEntity<CatalogueVersionDto> getCatalogueVersion() {
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache())
+                .body(new CatalogueVersionDto(moviesService.getCatalogueVersion()));
+    }
+
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamAllMovies(MovieFilter filter,
+                                                                 @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+                                                                 @RequestParam(required = false) List<String> currencies) {
+        var pricing = moviesService.resolvePricing(date, currencies);
+        StreamingResponseBody body = outputStream -> {
+            try (var writer = ndjsonWriter.writeValues(outputStream)) {
+                moviesService.streamMovies(filter, pricing, movie -> {
+                    try {
+                        writer.write(movie);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            }
+        };
+
+        return ResponseEntity.ok()
+                .headers(rateHeaders(pricing))
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
+    /**
+     * Changes after offset {@code since}, oldest first, at most {@code movies.changes.batch-size} of them. Poll
+     * again with the {@code X-Next-Offset} of the response to get the next ones.
+     */
+    @GetMapping(value = "/changes", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<List<CatalogueChange>> getChanges(@RequestParam(defaultValue = "0") @Min(0) long since,
+                                                            @RequestParam(required = false) @Min(1) Integer limit) {
+        var changes = catalogueChangeFeed.changes(since, limit == null ? catalogueChangeFeed.batchSize() : limit);
+        var next = changes.isEmpty() ? since : changes.getLast().offset();
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache())
+                .header(NEXT_OFFSET_HEADER, String.valueOf(next))
+                .body(changes);
+    }
+
+    /**
+     * The same changes as Server-Sent Events, followed by new ones as they are committed. Each event's id is its
+     * offset, a reconnect resumes after {@code Last-Event-ID}, or after {@code since} on the first connect.
+     */
+    @GetMapping(value = "/changes/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamChanges(@RequestParam(defaultValue = "0") @Min(0) long since,
+                                    @RequestHeader(value = LAST_EVENT_ID_HEADER, required = false) Long lastEventId) {
+        return catalogueChangeFeed.subscribe(lastEventId == null ? since : lastEventId);
     }
 
+    /**
+     * Up to {@code movies.lookup.max-keys} movies by id and code in one round trip, priced with a single rate list.
+     * Ids and codes that match nothing are listed in the response.
+     */
+    @PostMapping(value = "/lookup")
+    public ResponseEntity<MovieLookupResult> lookupMovies(@RequestBody MovieLookupRequest request,
+                                                          @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+                                                          @RequestParam(required = false) List<String> currencies) {
+        var pricing = moviesService.resolvePricing(date, currencies);
+        return ResponseEntity.ok()
+                .headers(rateHeaders(pricing))
+                .body(moviesService.lookupMovies(request, pricing));
+    }
+
+    /**
+     * A duplicate code is a 409. With an {@code Idempotency-Key}, retrying a request that succeeded replays its
+     * original 201, marked with {@code Idempotent-Replayed}.
+     */
     @PostMapping
-    public ResponseEntity<MovieDto> createMovie(@Valid @RequestBody MovieDto movieDto) {
+    public ResponseEntity<MovieDto> createMovie(@Valid @RequestBody MovieDto movieDto,
+                                                @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey) {
         try {
-            return ResponseEntity.status(201).body(moviesService.createMovie(movieDto));
-        } catch (ServerError e) {
+            var pricing = moviesService.resolvePricing(null, List.of());
+            var created = moviesService.createMovie(movieDto, pricing, idempotencyKey);
+            var response = ResponseEntity.status(201);
+            if (created.replayed()) {
+                response.header(IDEMPOTENT_REPLAYED_HEADER, "true");
+            } else {
+                response.headers(rateHeaders(pricing));
+            }
+            return response.body(created.movie());
+        } catch (ServerError | Conflict | UnprocessableEntity e) {
             throw e;
         } catch (Exception e) {
             return ResponseEntity.badRequest().build();
         }
     }
+
+    @PostMapping(value = "/bulk", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE,
+            MovieFormats.SMILE_VALUE, MediaType.APPLICATION_CBOR_VALUE})
+    public ResponseEntity<BulkImportResult> createMovies(@RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+                                                         InputStream body) throws IOException {
+        return ResponseEntity.ok(movieBulkImportService.importMovies(body, contentType));
+    }
+
+    private StreamingResponseBody array(MediaType format, Consumer<Consumer<MovieDto>> movies) {
+        var writer = movieFormats.writer(format);
+        return outputStream -> {
+            try (var generator = movieFormats.createGenerator(format, outputStream)) {
+                generator.writeStartArray();
+                movies.accept(movie -> write(writer, generator, movie));
+                generator.writeEndArray();
+            }
+        };
+    }
+
+    private static void write(ObjectWriter writer, JsonGenerator generator, MovieDto movie) {
+        try {
+            writer.writeValue(generator, movie);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private ResponseEntity<MovieDto> conditional(MovieDto movie, Pricing pricing, MediaType format, String ifNoneMatch) {
+        var etag = etag(movie.getId() + "-" + movie.getVersion(), pricing, format);
+        if (matches(ifNoneMatch, etag)) {
+            return notModified(etag);
+        }
+        return cacheable(etag, pricing).body(movie);
+    }
+
+    private ResponseEntity.BodyBuilder cacheable(ETag etag, Pricing pricing) {
+        return ResponseEntity.ok()
+                .eTag(etag.formattedTag())
+                .cacheControl(cacheControl)
+                .varyBy(HttpHeaders.ACCEPT)
+                .headers(rateHeaders(pricing));
+    }
+
+    private <T> ResponseEntity<T> notModified(ETag etag) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                .eTag(etag.formattedTag())
+                .cacheControl(cacheControl)
+                .varyBy(HttpHeaders.ACCEPT)
+                .build();
+    }
+
+    /**
+     * Weak ETag of a representation, the version of the data behind it plus the date of the rate list it was
+     * priced with and, for the binary encodings, the format. Currencies, paging and the requested date are part
+     * of the URL, so they need not be part of it. Weak, because the gzipped and the plain body are the same
+     * representation, and Tomcat does not compress responses with a strong ETag.
+     */
+    private ETag etag(String version, Pricing pricing, MediaType format) {
+        return new ETag(version + "-" + (pricing.rate() == null ? "none" : pricing.rate().date()) + movieFormats.etagSuffix(format), true);
+    }
+
+    private static boolean matches(String ifNoneMatch, ETag current) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+
+        return ETag.parse(ifNoneMatch).stream()
+                .anyMatch(it -> it.isWildcard() || it.compare(current, false));
+    }
+
+    private static HttpHeaders rateHeaders(Pricing pricing) {
+        var rate = pricing.rate();
+        var headers = new HttpHeaders();
+        if (rate != null) {
+            headers.set(RATE_DATE_HEADER, rate.date().toString());
+            headers.set(RATE_FETCHED_AT_HEADER, rate.fetchedAt().toString());
+            headers.set(RATE_AGE_HEADER, String.valueOf(rate.age().toSeconds()));
+        }
+        return headers;
+    }
 }
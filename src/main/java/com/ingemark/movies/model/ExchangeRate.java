@@ -0,0 +1,40 @@
+package com.ingemark.movies.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+
+@Entity
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Data
+public class ExchangeRate {
+    @EmbeddedId
+    private Key id;
+
+    @Column(nullable = false)
+    private BigDecimal rate;
+
+    @Column(nullable = false)
+    private Instant fetchedAt;
+
+    @Embeddable
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Data
+    public static class Key implements Serializable {
+        @Column(nullable = false, length = 3)
+        private String currency;
+
+        @Column(nullable = false)
+        private LocalDate rateDate;
+    }
+}
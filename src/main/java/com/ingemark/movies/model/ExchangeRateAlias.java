@@ -0,0 +1,22 @@
+package com.ingemark.movies.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+@Entity
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Data
+public class ExchangeRateAlias {
+    @Id
+    private LocalDate requestedDate;
+
+    @Column(nullable = false)
+    private LocalDate rateDate;
+}
@@ -0,0 +1,15 @@
+package com.ingemark.movies.model;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/**
+ * Read-only view of a {@link Movie} row, selected with a constructor expression so listings never create
+ * managed entities or their dirty-checking snapshots.
+ */
+public record MovieRow(UUID id, String code, String name, BigDecimal price, Boolean isAvailable, Long version) {
+
+    public static MovieRow of(Movie movie) {
+        return new MovieRow(movie.getId(), movie.getCode(), movie.getName(), movie.getPrice(), movie.getIsAvailable(), movie.getVersion());
+    }
+}
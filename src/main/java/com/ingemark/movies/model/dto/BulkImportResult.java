@@ -0,0 +1,27 @@
+package com.ingemark.movies.model.dto;
+
+import java.util.Comparator;
+import java.util.List;
+
+public record BulkImportResult(int created, int duplicates, int invalid, List<BulkItemResult> items) {
+
+    /**
+     * Counts {@code items} and lists them in payload order, invalid items are reported before the batch
+     * holding their neighbours is written.
+     */
+    public static BulkImportResult of(List<BulkItemResult> items) {
+        var created = 0;
+        var duplicates = 0;
+        var invalid = 0;
+        for (var item : items) {
+            switch (item.status()) {
+                case CREATED -> created++;
+                case DUPLICATE_CODE -> duplicates++;
+                case INVALID, MALFORMED -> invalid++;
+            }
+        }
+        return new BulkImportResult(created, duplicates, invalid, items.stream()
+                .sorted(Comparator.comparingInt(BulkItemResult::index))
+                .toList());
+    }
+}
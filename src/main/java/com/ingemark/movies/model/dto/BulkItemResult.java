@@ -0,0 +1,40 @@
+package com.ingemark.movies.model.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.List;
+import java.util.UUID;
+
+@JsonInclude(JsonInclude.Include.NON_EMPTY)
+public record BulkItemResult(
+        int index,
+        Status status,
+        @JsonFormat(shape = JsonFormat.Shape.STRING) UUID id,
+        String code,
+        List<String> errors
+) {
+
+    public enum Status {
+        CREATED,
+        DUPLICATE_CODE,
+        INVALID,
+        MALFORMED
+    }
+
+    public static BulkItemResult created(int index, UUID id, String code) {
+        return new BulkItemResult(index, Status.CREATED, id, code, List.of());
+    }
+
+    public static BulkItemResult duplicateCode(int index, String code) {
+        return new BulkItemResult(index, Status.DUPLICATE_CODE, null, code, List.of());
+    }
+
+    public static BulkItemResult invalid(int index, String code, List<String> errors) {
+        return new BulkItemResult(index, Status.INVALID, null, code, errors);
+    }
+
+    public static BulkItemResult malformed(int index, String error) {
+        return new BulkItemResult(index, Status.MALFORMED, null, null, List.of(error));
+    }
+}
@@ -0,0 +1,10 @@
+package com.ingemark.movies.model.dto;
+
+import com.fasterxml.jackson.annotation.JsonRawValue;
+
+/**
+ * One entry of the change feed. {@code movie} is the stored JSON of the movie as it was written, catalogue data
+ * only, without converted prices.
+ */
+public record CatalogueChange(long offset, String type, @JsonRawValue String movie) {
+}
@@ -0,0 +1,4 @@
+package com.ingemark.movies.model.dto;
+
+public record CatalogueVersionDto(long version) {
+}
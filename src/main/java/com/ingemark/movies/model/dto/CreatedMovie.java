@@ -0,0 +1,8 @@
+package com.ingemark.movies.model.dto;
+
+/**
+ * Outcome of creating a movie. {@code replayed} is set when {@code movie} is the stored response of an earlier
+ * request with the same {@code Idempotency-Key} rather than a movie created now.
+ */
+public record CreatedMovie(MovieDto movie, boolean replayed) {
+}
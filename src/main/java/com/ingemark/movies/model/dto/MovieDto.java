@@ -1,8 +1,13 @@
 package com.ingemark.movies.model.dto;
 
 import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.ingemark.movies.config.MovieDtoSerializer;
 import com.ingemark.movies.model.Movie;
+import com.ingemark.movies.model.MovieRow;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
@@ -11,20 +16,24 @@ import lombok.Builder;
 import lombok.Data;
 
 import java.math.BigDecimal;
+import java.util.Map;
 import java.util.UUID;
 
 @Data
 @Builder
+@JsonSerialize(using = MovieDtoSerializer.class)
 public class MovieDto {
 
-    public static MovieDto from(Movie movie, BigDecimal priceUsd) {
+    public static MovieDto from(MovieRow movie, BigDecimal priceUsd, Map<String, BigDecimal> prices) {
         return MovieDto.builder()
-                .id(movie.getId())
-                .code(movie.getCode())
-                .name(movie.getName())
-                .priceEur(movie.getPrice())
+                .id(movie.id())
+                .code(movie.code())
+                .name(movie.name())
+                .priceEur(movie.price())
                 .priceUsd(priceUsd)
-                .isAvailable(movie.getIsAvailable())
+                .prices(prices)
+                .isAvailable(movie.isAvailable())
+                .version(movie.version())
                 .build();
     }
 
@@ -53,8 +62,17 @@ public class MovieDto {
     private BigDecimal priceEur;
 
     @JsonProperty("price_usd")
+    @JsonInclude(JsonInclude.Include.NON_NULL)
     private BigDecimal priceUsd;
 
+    @JsonProperty("prices")
+    @JsonInclude(JsonInclude.Include.NON_EMPTY)
+    private Map<String, BigDecimal> prices;
+
     @JsonProperty("is_available")
+    @NotNull
     private Boolean isAvailable;
+
+    @JsonIgnore
+    private Long version;
 }
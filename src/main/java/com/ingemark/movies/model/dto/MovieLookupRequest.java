@@ -0,0 +1,20 @@
+package com.ingemark.movies.model.dto;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Movies to look up at once, by id, by code or both. Either list may be left out, null entries are rejected by
+ * {@link com.ingemark.movies.service.MoviesService#lookupMovies}.
+ */
+public record MovieLookupRequest(List<UUID> ids, List<String> codes) {
+
+    public MovieLookupRequest {
+        ids = ids == null ? List.of() : ids.stream().distinct().toList();
+        codes = codes == null ? List.of() : codes.stream().distinct().toList();
+    }
+
+    public int size() {
+        return ids.size() + codes.size();
+    }
+}
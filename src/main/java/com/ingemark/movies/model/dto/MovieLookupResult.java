@@ -0,0 +1,17 @@
+package com.ingemark.movies.model.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Movies found by a {@link MovieLookupRequest}, in the order they were asked for, each once, plus every requested
+ * id and code that matched nothing.
+ */
+public record MovieLookupResult(
+        List<MovieDto> movies,
+        @JsonProperty("missing_ids") List<UUID> missingIds,
+        @JsonProperty("missing_codes") List<String> missingCodes
+) {
+}
@@ -0,0 +1,26 @@
+package com.ingemark.movies.model.dto;
+
+import com.ingemark.movies.model.exception.BadRequest;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * One keyset page of movies ordered by id. {@code nextCursor} is {@code null} on the last page.
+ */
+public record MoviePage(List<MovieDto> movies, String nextCursor) {
+
+    public static String encodeCursor(UUID lastId) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(lastId.toString().getBytes(StandardCharsets.US_ASCII));
+    }
+
+    public static UUID decodeCursor(String cursor) {
+        try {
+            return UUID.fromString(new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.US_ASCII));
+        } catch (IllegalArgumentException e) {
+            throw new BadRequest("Invalid cursor", e);
+        }
+    }
+}
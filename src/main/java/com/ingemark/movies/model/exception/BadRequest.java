@@ -0,0 +1,16 @@
+package com.ingemark.movies.model.exception;
+
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+import static org.springframework.http.HttpStatus.BAD_REQUEST;
+
+@ResponseStatus(code = BAD_REQUEST, reason = "Bad Request")
+public class BadRequest extends RuntimeException {
+    public BadRequest(String message) {
+        super(message);
+    }
+
+    public BadRequest(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
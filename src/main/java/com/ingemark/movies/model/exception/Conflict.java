@@ -0,0 +1,12 @@
+package com.ingemark.movies.model.exception;
+
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+import static org.springframework.http.HttpStatus.CONFLICT;
+
+@ResponseStatus(code = CONFLICT, reason = "Conflict")
+public class Conflict extends RuntimeException {
+    public Conflict(String message) {
+        super(message);
+    }
+}
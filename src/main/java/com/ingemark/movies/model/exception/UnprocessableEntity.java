@@ -0,0 +1,12 @@
+package com.ingemark.movies.model.exception;
+
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+import static org.springframework.http.HttpStatus.UNPROCESSABLE_ENTITY;
+
+@ResponseStatus(code = UNPROCESSABLE_ENTITY, reason = "Unprocessable Entity")
+public class UnprocessableEntity extends RuntimeException {
+    public UnprocessableEntity(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,11 @@
+package com.ingemark.movies.repository;
+
+import com.ingemark.movies.model.ExchangeRateAlias;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+
+@Repository
+public interface ExchangeRateAliasRepository extends JpaRepository<ExchangeRateAlias, LocalDate> {
+}
@@ -0,0 +1,17 @@
+package com.ingemark.movies.repository;
+
+import com.ingemark.movies.model.ExchangeRate;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface ExchangeRateRepository extends JpaRepository<ExchangeRate, ExchangeRate.Key> {
+
+    List<ExchangeRate> findByIdRateDate(LocalDate rateDate);
+
+    Optional<ExchangeRate> findFirstByOrderByIdRateDateDesc();
+}
@@ -0,0 +1,61 @@
+package com.ingemark.movies.repository;
+
+import com.ingemark.movies.model.Movie;
+import jakarta.persistence.criteria.Predicate;
+import org.hibernate.query.criteria.HibernateCriteriaBuilder;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.util.StringUtils;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+
+/**
+ * Optional criteria for listing movies, every criterion that is set must match.
+ * <p>
+ * Each one maps to a predicate an index in {@code db/changelog/2026/10/18-04-changelog.xml} can answer:
+ * {@code isAvailable = true} the partial index, the price range the btree on price, {@code codePrefix} a
+ * {@code LIKE 'prefix%'} on the pattern index and {@code name} a case-insensitive {@code ILIKE '%name%'}
+ * on the trigram index.
+ */
+public record MovieFilter(Boolean isAvailable,
+                          BigDecimal minPrice,
+                          BigDecimal maxPrice,
+                          String codePrefix,
+                          String name) {
+
+    public static final MovieFilter NONE = new MovieFilter(null, null, null, null, null);
+
+    // Hibernate renders LIKE without an escape character as ESCAPE '' on Postgres, so it has to be explicit
+    private static final char ESCAPE = '\\';
+
+    public Specification<Movie> toSpecification() {
+        return (root, query, cb) -> {
+            var predicates = new ArrayList<Predicate>();
+            if (isAvailable != null) {
+                predicates.add(cb.equal(root.get("isAvailable"), isAvailable));
+            }
+            if (minPrice != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.get("price"), minPrice));
+            }
+            if (maxPrice != null) {
+                predicates.add(cb.lessThanOrEqualTo(root.get("price"), maxPrice));
+            }
+            if (StringUtils.hasText(codePrefix)) {
+                predicates.add(cb.like(root.get("code"), escapeLike(codePrefix) + "%", ESCAPE));
+            }
+            if (StringUtils.hasText(name)) {
+                predicates.add(((HibernateCriteriaBuilder) cb).ilike(root.get("name"), "%" + escapeLike(name) + "%", ESCAPE));
+            }
+            return cb.and(predicates.toArray(Predicate[]::new));
+        };
+    }
+
+    /**
+     * Escapes LIKE wildcards with {@link #ESCAPE}.
+     */
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_");
+    }
+}
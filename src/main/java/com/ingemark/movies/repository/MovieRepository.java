@@ -2,10 +2,16 @@ package com.ingemark.movies.repository;
 
 import com.ingemark.movies.model.Movie;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.stereotype.Repository;
 
+import java.util.Optional;
 import java.util.UUID;
 
 @Repository
-public interface MovieRepository extends JpaRepository<Movie, UUID> {
+public interface MovieRepository extends JpaRepository<Movie, UUID>, JpaSpecificationExecutor<Movie>, MovieRowRepository {
+
+    Optional<Movie> findByCode(String code);
+
+    boolean existsByCode(String code);
 }
@@ -0,0 +1,38 @@
+package com.ingemark.movies.repository;
+
+import com.ingemark.movies.model.Movie;
+import com.ingemark.movies.model.MovieRow;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+public interface MovieRowRepository {
+
+    /**
+     * Movies matching {@code filter} with an id after {@code after}, in id order, at most {@code limit} of them.
+     * {@code after} and {@code limit} are optional.
+     */
+    List<MovieRow> findRows(MovieFilter filter, UUID after, Integer limit);
+
+    /**
+     * Every movie matching {@code filter} in id order, read from a database cursor. Must be consumed and closed
+     * inside a transaction.
+     */
+    Stream<MovieRow> streamRows(MovieFilter filter);
+
+    /**
+     * Every movie whose id is in {@code ids} or whose code is in {@code codes}, in a single query with both lists
+     * bound as arrays, in no particular order.
+     */
+    List<MovieRow> findRowsByIdsOrCodes(Collection<UUID> ids, Collection<String> codes);
+
+    /**
+     * Inserts {@code movie} with {@code ON CONFLICT DO NOTHING} and returns it with its id, version and
+     * timestamp, or nothing when its code is already taken. A duplicate neither throws nor marks the surrounding
+     * transaction for rollback. The movie is not put in the persistence context.
+     */
+    Optional<Movie> insertIfAbsent(Movie movie);
+}
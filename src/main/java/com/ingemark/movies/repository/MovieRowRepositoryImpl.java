@@ -0,0 +1,107 @@
+package com.ingemark.movies.repository;
+
+import com.ingemark.movies.model.Movie;
+import com.ingemark.movies.model.MovieRow;
+import com.ingemark.movies.model.UuidV7Generator;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.AvailableHints.HINT_FETCH_SIZE;
+
+@RequiredArgsConstructor
+class MovieRowRepositoryImpl implements MovieRowRepository {
+
+    private static final int STREAM_FETCH_SIZE = 500;
+
+    private static final String INSERT_MOVIE = """
+            INSERT INTO movie (id, code, name, price, is_available)
+            VALUES (?, ?, ?, ?, ?)
+            ON CONFLICT (code) DO NOTHING
+            RETURNING version, last_modified
+            """;
+
+    private static final String FIND_BY_IDS_OR_CODES = """
+            SELECT id, code, name, price, is_available, version
+            FROM movie
+            WHERE id = ANY (?) OR code = ANY (?)
+            """;
+
+    private final EntityManager entityManager;
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public List<MovieRow> findRows(MovieFilter filter, UUID after, Integer limit) {
+        var query = query(filter, after);
+        if (limit != null) {
+            query.setMaxResults(limit);
+        }
+        return query.getResultList();
+    }
+
+    @Override
+    public Stream<MovieRow> streamRows(MovieFilter filter) {
+        return query(filter, null)
+                .setHint(HINT_FETCH_SIZE, STREAM_FETCH_SIZE)
+                .getResultStream();
+    }
+
+    @Override
+    public List<MovieRow> findRowsByIdsOrCodes(Collection<UUID> ids, Collection<String> codes) {
+        return jdbcTemplate.query(connection -> {
+                    var statement = connection.prepareStatement(FIND_BY_IDS_OR_CODES);
+                    statement.setArray(1, connection.createArrayOf("uuid", ids.toArray()));
+                    statement.setArray(2, connection.createArrayOf("varchar", codes.toArray()));
+                    return statement;
+                },
+                (rs, rowNum) -> new MovieRow(
+                        rs.getObject("id", UUID.class),
+                        rs.getString("code"),
+                        rs.getString("name"),
+                        rs.getBigDecimal("price"),
+                        rs.getBoolean("is_available"),
+                        rs.getLong("version")));
+    }
+
+    @Override
+    public Optional<Movie> insertIfAbsent(Movie movie) {
+        var id = UuidV7Generator.next();
+        return jdbcTemplate.query(INSERT_MOVIE,
+                        (rs, rowNum) -> Movie.builder()
+                                .id(id)
+                                .code(movie.getCode())
+                                .name(movie.getName())
+                                .price(movie.getPrice())
+                                .isAvailable(movie.getIsAvailable())
+                                .version(rs.getLong("version"))
+                                .lastModified(rs.getTimestamp("last_modified").toInstant())
+                                .build(),
+                        id, movie.getCode(), movie.getName(), movie.getPrice(), movie.getIsAvailable())
+                .stream()
+                .findFirst();
+    }
+
+    private TypedQuery<MovieRow> query(MovieFilter filter, UUID after) {
+        var cb = entityManager.getCriteriaBuilder();
+        var query = cb.createQuery(MovieRow.class);
+        var root = query.from(Movie.class);
+
+        var predicate = filter.toSpecification().toPredicate(root, query, cb);
+        if (after != null) {
+            predicate = cb.and(predicate, cb.greaterThan(root.get("id"), after));
+        }
+        query.select(cb.construct(MovieRow.class,
+                        root.get("id"), root.get("code"), root.get("name"), root.get("price"), root.get("isAvailable"), root.get("version")))
+                .where(predicate)
+                .orderBy(cb.asc(root.get("id")));
+
+        return entityManager.createQuery(query);
+    }
+}
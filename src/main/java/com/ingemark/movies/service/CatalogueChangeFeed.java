@@ -0,0 +1,135 @@
+package com.ingemark.movies.service;
+
+import com.ingemark.movies.model.dto.CatalogueChange;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Serves {@link CatalogueChanges} to pollers and to Server-Sent Events subscribers.
+ * <p>
+ * Each subscriber is fed by its own virtual thread, so a slow client only holds up itself. While subscribers are
+ * connected, the newest offset is read once per {@code movies.changes.poll-interval} and a subscriber only queries
+ * for changes when it is behind, idle subscribers cost no queries. Events carry their offset as the SSE id, so a
+ * reconnecting {@code EventSource} resumes where it left off through {@code Last-Event-ID}.
+ */
+@Slf4j
+@Component
+public class CatalogueChangeFeed {
+
+    private final CatalogueChanges catalogueChanges;
+    private final Duration pollInterval;
+    private final Duration heartbeat;
+    private final int batchSize;
+
+    private final AtomicInteger subscribers = new AtomicInteger();
+    private volatile long head;
+
+    public CatalogueChangeFeed(CatalogueChanges catalogueChanges,
+                               @Value("${movies.changes.poll-interval}") Duration pollInterval,
+                               @Value("${movies.changes.heartbeat}") Duration heartbeat,
+                               @Value("${movies.changes.batch-size}") int batchSize,
+                               MeterRegistry meterRegistry) {
+        this.catalogueChanges = catalogueChanges;
+        this.pollInterval = pollInterval;
+        this.heartbeat = heartbeat;
+        this.batchSize = batchSize;
+
+        Gauge.builder("movies.changes.subscribers", subscribers, AtomicInteger::get)
+                .description("Connected change feed subscribers")
+                .register(meterRegistry);
+    }
+
+    public int batchSize() {
+        return batchSize;
+    }
+
+    public List<CatalogueChange> changes(long since, int limit) {
+        return catalogueChanges.after(since, Math.min(limit, batchSize));
+    }
+
+    public SseEmitter subscribe(long since) {
+        var emitter = new SseEmitter();
+        var subscription = new Subscription(emitter, since);
+        emitter.onCompletion(subscription::close);
+        emitter.onTimeout(subscription::close);
+        emitter.onError(e -> subscription.close());
+
+        head = Math.max(head, catalogueChanges.head());
+        subscribers.incrementAndGet();
+        Thread.ofVirtual().name("catalogue-changes").start(subscription::run);
+        return emitter;
+    }
+
+    @Scheduled(fixedDelayString = "${movies.changes.poll-interval}")
+    public void pollHead() {
+        if (subscribers.get() > 0) {
+            head = catalogueChanges.head();
+        }
+    }
+
+    private final class Subscription {
+
+        private final SseEmitter emitter;
+        private long offset;
+        private final AtomicBoolean open = new AtomicBoolean(true);
+
+        private Subscription(SseEmitter emitter, long since) {
+            this.emitter = emitter;
+            this.offset = since;
+        }
+
+        private void run() {
+            try {
+                var lastSent = System.nanoTime();
+                while (open.get()) {
+                    if (offset < head) {
+                        var batch = catalogueChanges.after(offset, batchSize);
+                        for (var change : batch) {
+                            emitter.send(SseEmitter.event()
+                                    .id(Long.toString(change.offset()))
+                                    .name(change.type())
+                                    .data(change.movie(), MediaType.APPLICATION_JSON));
+                            offset = change.offset();
+                        }
+                        if (!batch.isEmpty()) {
+                            lastSent = System.nanoTime();
+                        }
+                        if (batch.size() == batchSize) {
+                            continue;
+                        }
+                    } else if (System.nanoTime() - lastSent >= heartbeat.toNanos()) {
+                        emitter.send(SseEmitter.event().comment("heartbeat"));
+                        lastSent = System.nanoTime();
+                    }
+                    Thread.sleep(pollInterval);
+                }
+            } catch (IOException | RuntimeException e) {
+                log.debug("Change feed subscriber gone at offset {}", offset, e);
+                emitter.completeWithError(e);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                emitter.complete();
+            } finally {
+                close();
+            }
+        }
+
+        private void close() {
+            if (open.compareAndSet(true, false)) {
+                subscribers.decrementAndGet();
+            }
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.ingemark.movies.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ingemark.movies.model.dto.CatalogueChange;
+import com.ingemark.movies.model.dto.MovieDto;
+import com.ingemark.movies.model.exception.ServerError;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+/**
+ * Transactional outbox of catalogue changes in {@code catalogue_change}, read back as a feed ordered by offset.
+ * <p>
+ * Offsets come from an identity column and are drawn after {@link CatalogueVersion#bump()}. Writers are serialized
+ * on that lock until they commit, so offsets become visible in increasing order and a reader that has seen offset
+ * {@code n} can never later find a smaller one. A rolled back writer leaves a gap, never a reordering.
+ */
+@Component
+public class CatalogueChanges {
+
+    public static final String CREATED = "created";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+
+    public CatalogueChanges(JdbcTemplate jdbcTemplate, ObjectMapper objectMapper) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Must be called inside the transaction that created {@code movies}, after {@link CatalogueVersion#bump()}.
+     */
+    public void created(List<MovieDto> movies) {
+        jdbcTemplate.batchUpdate("INSERT INTO catalogue_change (movie_id, type, movie, created_at) VALUES (?, ?, ?, now())",
+                movies, movies.size(),
+                (ps, movie) -> {
+                    ps.setObject(1, movie.getId());
+                    ps.setString(2, CREATED);
+                    ps.setString(3, write(movie));
+                });
+    }
+
+    @Transactional(readOnly = true)
+    public List<CatalogueChange> after(long offset, int limit) {
+        return jdbcTemplate.query("SELECT id, type, movie FROM catalogue_change WHERE id > ? ORDER BY id LIMIT ?",
+                (rs, rowNum) -> new CatalogueChange(rs.getLong("id"), rs.getString("type"), rs.getString("movie")),
+                offset, limit);
+    }
+
+    @Transactional(readOnly = true)
+    public long head() {
+        return jdbcTemplate.queryForObject("SELECT coalesce(max(id), 0) FROM catalogue_change", Long.class);
+    }
+
+    private String write(MovieDto movie) {
+        try {
+            return objectMapper.writeValueAsString(MovieDto.builder()
+                    .id(movie.getId())
+                    .code(movie.getCode())
+                    .name(movie.getName())
+                    .priceEur(movie.getPriceEur())
+                    .isAvailable(movie.getIsAvailable())
+                    .build());
+        } catch (JsonProcessingException e) {
+            throw new ServerError("Unable to store catalogue change", e);
+        }
+    }
+}
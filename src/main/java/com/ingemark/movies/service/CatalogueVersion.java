@@ -0,0 +1,36 @@
+package com.ingemark.movies.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Global, monotonically increasing version of the movie catalogue, kept in the single row of
+ * {@code catalogue_version}.
+ * <p>
+ * Writers bump it in the same transaction as their change. The row lock is held until that transaction commits,
+ * so concurrent writers are serialized on it and a version never becomes visible before the change it stands for.
+ */
+@Component
+@RequiredArgsConstructor
+public class CatalogueVersion {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Read-only, so with a replica it is read from the same database as the listing it versions and never runs
+     * ahead of the data.
+     */
+    @Transactional(readOnly = true)
+    public long current() {
+        return jdbcTemplate.queryForObject("SELECT version FROM catalogue_version WHERE id = 1", Long.class);
+    }
+
+    /**
+     * Must be called inside the transaction that changed the catalogue.
+     */
+    public long bump() {
+        return jdbcTemplate.queryForObject("UPDATE catalogue_version SET version = version + 1 WHERE id = 1 RETURNING version", Long.class);
+    }
+}
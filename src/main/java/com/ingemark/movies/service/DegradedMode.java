@@ -0,0 +1,19 @@
+package com.ingemark.movies.service;
+
+/**
+ * What movie reads do when no fresh exchange rate can be obtained.
+ */
+public enum DegradedMode {
+    /**
+     * Fail the request with {@link com.ingemark.movies.model.exception.ServerError}.
+     */
+    DISABLED,
+    /**
+     * Serve EUR prices only, {@code price_usd} is left out.
+     */
+    OMIT_USD,
+    /**
+     * Keep converting with the last rate that was fetched, however old it is.
+     */
+    LAST_KNOWN_RATE
+}
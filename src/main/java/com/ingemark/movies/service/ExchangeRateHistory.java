@@ -0,0 +1,90 @@
+package com.ingemark.movies.service;
+
+import com.ingemark.movies.model.ExchangeRate;
+import com.ingemark.movies.model.ExchangeRateAlias;
+import com.ingemark.movies.repository.ExchangeRateAliasRepository;
+import com.ingemark.movies.repository.ExchangeRateRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+/**
+ * Local copy of every rate list fetched from HNB, one row per currency and the date HNB published it for.
+ * A day HNB answered with another day's list, such as a weekend or a holiday, is kept as an alias of that day, so it
+ * is found locally the next time. Failing to write it is logged and otherwise ignored, pricing never depends on the write succeeding.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ExchangeRateHistory {
+
+    private final ExchangeRateRepository exchangeRateRepository;
+    private final ExchangeRateAliasRepository exchangeRateAliasRepository;
+
+    public void record(RateSnapshot snapshot) {
+        if (snapshot.date() == null) {
+            return;
+        }
+
+        var rows = snapshot.rates().entrySet().stream()
+                .map(rate -> ExchangeRate.builder()
+                        .id(new ExchangeRate.Key(rate.getKey(), snapshot.date()))
+                        .rate(rate.getValue())
+                        .fetchedAt(snapshot.fetchedAt())
+                        .build())
+                .toList();
+        try {
+            exchangeRateRepository.saveAll(rows);
+        } catch (DataAccessException e) {
+            log.warn("Unable to store exchange rates for {}", snapshot.date(), e);
+        }
+    }
+
+    /**
+     * Records a rate list fetched for {@code requestedDate}, which HNB may have published for an earlier day.
+     */
+    public void record(RateSnapshot snapshot, LocalDate requestedDate) {
+        record(snapshot);
+        if (snapshot.date() == null || snapshot.date().equals(requestedDate)) {
+            return;
+        }
+
+        try {
+            exchangeRateAliasRepository.save(new ExchangeRateAlias(requestedDate, snapshot.date()));
+        } catch (DataAccessException e) {
+            log.warn("Unable to store {} as an alias of the exchange rates for {}", requestedDate, snapshot.date(), e);
+        }
+    }
+
+    public Optional<RateSnapshot> find(LocalDate date) {
+        return toSnapshot(date, exchangeRateRepository.findByIdRateDate(date))
+                .or(() -> exchangeRateAliasRepository.findById(date)
+                        .flatMap(alias -> toSnapshot(alias.getRateDate(), exchangeRateRepository.findByIdRateDate(alias.getRateDate()))));
+    }
+
+    public Optional<RateSnapshot> findLatest() {
+        return exchangeRateRepository.findFirstByOrderByIdRateDateDesc()
+                .flatMap(latest -> find(latest.getId().getRateDate()));
+    }
+
+    private static Optional<RateSnapshot> toSnapshot(LocalDate date, List<ExchangeRate> rows) {
+        if (rows.isEmpty()) {
+            return Optional.empty();
+        }
+
+        var rates = rows.stream()
+                .collect(Collectors.toMap(it -> it.getId().getCurrency(), ExchangeRate::getRate));
+        var fetchedAt = rows.stream()
+                .map(ExchangeRate::getFetchedAt)
+                .max(Comparator.naturalOrder())
+                .orElseThrow();
+        return Optional.of(new RateSnapshot(rates, date, fetchedAt));
+    }
+}
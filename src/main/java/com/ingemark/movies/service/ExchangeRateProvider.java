@@ -0,0 +1,190 @@
+package com.ingemark.movies.service;
+
+import com.ingemark.movies.model.exception.BadRequest;
+import com.ingemark.movies.model.exception.ServerError;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Optional;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Keeps the current HNB rate list in memory and refreshes it in the background.
+ * <p>
+ * Reads never wait on HNB while a rate is held. A failed refresh keeps the last good rate
+ * in service until it is older than {@code hnb.rate.max-staleness}, after which callers get {@link ServerError}.
+ * Concurrent fetches for the same day share a single upstream request, which covers every published currency.
+ * <p>
+ * Every fetched rate list is written to {@link ExchangeRateHistory}. The latest stored rate seeds the provider on
+ * startup and rates for past days are served from there, going to HNB only the first time a day is asked for.
+ */
+@Slf4j
+@Component
+public class ExchangeRateProvider {
+
+    private static final ZoneId HNB_ZONE = ZoneId.of("Europe/Zagreb");
+
+    private final Duration maxStaleness;
+    private final HnbClient hnbClient;
+    private final ExchangeRateHistory history;
+    private final Executor executor;
+
+    private final SingleFlight<LocalDate, RateSnapshot> fetches = new SingleFlight<>();
+    private final AtomicReference<RateSnapshot> current = new AtomicReference<>();
+    private final AtomicBoolean backgroundRefresh = new AtomicBoolean();
+    private final AtomicLong refreshFailures = new AtomicLong();
+    private final AtomicLong consecutiveFailures = new AtomicLong();
+
+    public ExchangeRateProvider(@Value("${hnb.rate.max-staleness}") Duration maxStaleness,
+                                HnbClient hnbClient,
+                                ExchangeRateHistory history,
+                                @Qualifier("applicationTaskExecutor") Executor executor,
+                                MeterRegistry meterRegistry) {
+        this.maxStaleness = maxStaleness;
+        this.hnbClient = hnbClient;
+        this.history = history;
+        this.executor = executor;
+
+        Gauge.builder("hnb.rate.age", this, ExchangeRateProvider::ageSeconds)
+                .description("Seconds since the exchange rate was last refreshed")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+        Gauge.builder("hnb.rate.refresh.consecutive.failures", consecutiveFailures, AtomicLong::get)
+                .description("Refresh failures since the last successful refresh")
+                .register(meterRegistry);
+        FunctionCounter.builder("hnb.rate.refresh.failures", refreshFailures, AtomicLong::get)
+                .description("Total number of failed exchange rate refreshes")
+                .register(meterRegistry);
+    }
+
+    public RateSnapshot getSnapshot() {
+        var cached = current.get();
+        if (cached != null && !isExpired(cached)) {
+            return cached;
+        }
+
+        return fetchShared();
+    }
+
+    public RateSnapshot getSnapshot(LocalDate date) {
+        var today = LocalDate.now(HNB_ZONE);
+        if (date.isAfter(today)) {
+            throw new BadRequest("No exchange rate published for " + date);
+        }
+        if (date.equals(today)) {
+            return getSnapshot();
+        }
+
+        return history.find(date)
+                .orElseGet(() -> fetches.execute(date, () -> fetchHistorical(date)));
+    }
+
+    /**
+     * Returns the held rate without waiting on HNB, scheduling a background refresh if it has expired.
+     * Only a cold start, with no rate held at all, makes a synchronous attempt.
+     */
+    public Optional<RateSnapshot> findSnapshot(boolean acceptExpired) {
+        var cached = current.get();
+        if (cached == null) {
+            try {
+                return Optional.of(fetchShared());
+            } catch (ServerError e) {
+                return Optional.empty();
+            }
+        }
+
+        if (!isExpired(cached)) {
+            return Optional.of(cached);
+        }
+        refreshInBackground();
+        return acceptExpired ? Optional.of(cached) : Optional.empty();
+    }
+
+    @Scheduled(initialDelayString = "${hnb.rate.initial-delay}", fixedDelayString = "${hnb.rate.refresh-interval}")
+    public void scheduledRefresh() {
+        try {
+            fetches.execute(currentKey(), this::refresh);
+        } catch (ServerError e) {
+            log.warn("Exchange rate refresh failed, {} consecutive failures", consecutiveFailures.get(), e);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        history.findLatest().ifPresent(stored -> current.compareAndSet(null, stored));
+    }
+
+    private RateSnapshot fetchShared() {
+        return fetches.execute(currentKey(), () -> {
+            var latest = current.get();
+            return latest != null && !isExpired(latest) ? latest : refresh();
+        });
+    }
+
+    private void refreshInBackground() {
+        if (backgroundRefresh.compareAndSet(false, true)) {
+            executor.execute(() -> {
+                try {
+                    scheduledRefresh();
+                } finally {
+                    backgroundRefresh.set(false);
+                }
+            });
+        }
+    }
+
+    private RateSnapshot refresh() {
+        try {
+            var refreshed = hnbClient.fetchRates();
+            current.set(refreshed);
+            history.record(refreshed);
+            consecutiveFailures.set(0);
+            return refreshed;
+        } catch (Exception e) {
+            refreshFailures.incrementAndGet();
+            consecutiveFailures.incrementAndGet();
+            throw new ServerError("Unable to reach HNB api", e);
+        }
+    }
+
+    private RateSnapshot fetchHistorical(LocalDate date) {
+        Optional<RateSnapshot> fetched;
+        try {
+            fetched = hnbClient.fetchRates(date);
+        } catch (Exception e) {
+            throw new ServerError("Unable to reach HNB api", e);
+        }
+
+        var snapshot = fetched.orElseThrow(() -> new BadRequest("No exchange rate published for " + date));
+        history.record(snapshot, date);
+        return snapshot;
+    }
+
+    private LocalDate currentKey() {
+        return LocalDate.now(HNB_ZONE);
+    }
+
+    private boolean isExpired(RateSnapshot snapshot) {
+        return snapshot.fetchedAt().plus(maxStaleness).isBefore(Instant.now());
+    }
+
+    private double ageSeconds() {
+        var cached = current.get();
+        return cached == null ? Double.NaN : cached.age().toMillis() / 1000.0;
+    }
+}
@@ -0,0 +1,125 @@
+package com.ingemark.movies.service;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.ingemark.movies.config.ComaBigDecimalDeserializer;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.retry.Retry;
+import io.github.resilience4j.retry.RetryRegistry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClient;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Calls the HNB exchange rate API through the {@code hnb} retry, circuit breaker and bulkhead.
+ * <p>
+ * Each attempt is bounded by the client timeouts in {@link com.ingemark.movies.config.RestClientConfig}, the bulkhead
+ * rejects calls above its concurrency limit instead of queueing them and an open breaker fails immediately,
+ * so a degraded HNB never holds request threads for longer than the configured attempts.
+ * <p>
+ * Every fetch, retries included, is timed as {@code hnb.fetch}, tagged with the {@code kind} of rate list and an
+ * {@code outcome} of {@code SUCCESS}, {@code EMPTY}, {@code REJECTED} by the breaker or bulkhead, or {@code ERROR}.
+ * Single attempts show up as {@code http.client.requests}.
+ */
+@Component
+public class HnbClient {
+
+    public static final String RESILIENCE_INSTANCE = "hnb";
+
+    private final String hnbUrl;
+    private final RestClient restClient;
+    private final Retry retry;
+    private final CircuitBreaker circuitBreaker;
+    private final Bulkhead bulkhead;
+    private final MeterRegistry meterRegistry;
+
+    public HnbClient(@Value("${hnb.url}") String hnbUrl,
+                     RestClient restClient,
+                     RetryRegistry retryRegistry,
+                     CircuitBreakerRegistry circuitBreakerRegistry,
+                     BulkheadRegistry bulkheadRegistry,
+                     MeterRegistry meterRegistry) {
+        this.hnbUrl = hnbUrl;
+        this.restClient = restClient;
+        this.retry = retryRegistry.retry(RESILIENCE_INSTANCE);
+        this.circuitBreaker = circuitBreakerRegistry.circuitBreaker(RESILIENCE_INSTANCE);
+        this.bulkhead = bulkheadRegistry.bulkhead(RESILIENCE_INSTANCE);
+        this.meterRegistry = meterRegistry;
+    }
+
+    public RateSnapshot fetchRates() {
+        return fetchRates(null)
+                .orElseThrow(() -> new IllegalStateException("HNB returned an empty rate list"));
+    }
+
+    /**
+     * Full rate list published for {@code date}, or the current one when {@code date} is {@code null}, in a single
+     * request. Empty when HNB has no rate list for that day.
+     */
+    public Optional<RateSnapshot> fetchRates(LocalDate date) {
+        // templated, so http.client.requests gets one uri tag rather than one per date
+        Supplier<List<ExchangeRate>> call = date == null
+                ? () -> fetch(hnbUrl + "/tecajn-eur/v3")
+                : () -> fetch(hnbUrl + "/tecajn-eur/v3?datum-primjene={date}", date);
+        var sample = Timer.start(meterRegistry);
+        var outcome = "ERROR";
+        List<ExchangeRate> rates;
+        try {
+            rates = Retry.decorateSupplier(retry,
+                            CircuitBreaker.decorateSupplier(circuitBreaker,
+                                    Bulkhead.decorateSupplier(bulkhead, call)))
+                    .get();
+            outcome = rates.isEmpty() ? "EMPTY" : "SUCCESS";
+        } catch (CallNotPermittedException | BulkheadFullException e) {
+            outcome = "REJECTED";
+            throw e;
+        } finally {
+            sample.stop(Timer.builder("hnb.fetch")
+                    .description("HNB rate list fetches, retries included")
+                    .tag("kind", date == null ? "current" : "historical")
+                    .tag("outcome", outcome)
+                    .register(meterRegistry));
+        }
+        if (rates.isEmpty()) {
+            return Optional.empty();
+        }
+
+        var byCurrency = rates.stream()
+                .collect(Collectors.toMap(ExchangeRate::valuta, ExchangeRate::srednjiTecaj, (first, second) -> first));
+        return Optional.of(new RateSnapshot(byCurrency, rates.getFirst().datumPrimjene(), Instant.now()));
+    }
+
+    private List<ExchangeRate> fetch(String uri, Object... variables) {
+        var typeReference = new ParameterizedTypeReference<List<ExchangeRate>>() {
+        };
+
+        return Objects.requireNonNull(restClient.get()
+                .uri(uri, variables)
+                .retrieve()
+                .body(typeReference));
+    }
+
+    private record ExchangeRate(
+            @JsonProperty("valuta") String valuta,
+            @JsonProperty("datum_primjene") LocalDate datumPrimjene,
+            @JsonProperty("srednji_tecaj") @JsonDeserialize(using = ComaBigDecimalDeserializer.class) BigDecimal srednjiTecaj
+    ) {
+    }
+}
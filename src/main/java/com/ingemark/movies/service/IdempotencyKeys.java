@@ -0,0 +1,107 @@
+package com.ingemark.movies.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ingemark.movies.model.dto.MovieDto;
+import com.ingemark.movies.model.exception.ServerError;
+import com.ingemark.movies.model.exception.UnprocessableEntity;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+
+/**
+ * Responses of {@code POST /movies} stored by their {@code Idempotency-Key} for {@code movies.idempotency.ttl}.
+ * <p>
+ * A key is claimed in the transaction that creates the movie and completed with the response before it commits.
+ * A concurrent request with the same key blocks on the claim until that transaction ends, then either finds the
+ * stored response or, if the first one rolled back, claims the key itself. Failed requests store nothing, so
+ * retrying them runs them again. Each key remembers a fingerprint of the request it was used with and reusing
+ * it for a different request is an {@link UnprocessableEntity}.
+ */
+@Slf4j
+@Component
+public class IdempotencyKeys {
+
+    public static final int MAX_KEY_LENGTH = 255;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final Duration ttl;
+
+    public IdempotencyKeys(JdbcTemplate jdbcTemplate,
+                           ObjectMapper objectMapper,
+                           @Value("${movies.idempotency.ttl}") Duration ttl) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+        this.ttl = ttl;
+    }
+
+    /**
+     * The response stored for {@code key}, if it was completed and has not expired.
+     */
+    public Optional<MovieDto> find(String key, String fingerprint) {
+        return jdbcTemplate.query("SELECT request_hash, response FROM idempotency_key WHERE idempotency_key = ? AND created_at > ? AND response IS NOT NULL",
+                        (rs, rowNum) -> {
+                            if (!rs.getString("request_hash").equals(fingerprint)) {
+                                throw new UnprocessableEntity("Idempotency-Key was already used for a different request");
+                            }
+                            return read(rs.getString("response"));
+                        },
+                        key, expiry())
+                .stream()
+                .findFirst();
+    }
+
+    /**
+     * Must be called inside the transaction that serves the request. Returns {@code false} when another request
+     * already completed {@code key}, an expired key is taken over.
+     */
+    public boolean claim(String key, String fingerprint) {
+        return jdbcTemplate.update("""
+                INSERT INTO idempotency_key (idempotency_key, request_hash, created_at)
+                VALUES (?, ?, now())
+                ON CONFLICT (idempotency_key) DO UPDATE
+                SET request_hash = excluded.request_hash, response = NULL, created_at = excluded.created_at
+                WHERE idempotency_key.created_at <= ?
+                """, key, fingerprint, expiry()) == 1;
+    }
+
+    public void complete(String key, MovieDto response) {
+        jdbcTemplate.update("UPDATE idempotency_key SET response = ? WHERE idempotency_key = ?", write(response), key);
+    }
+
+    @Scheduled(fixedDelayString = "${movies.idempotency.purge-interval}", initialDelayString = "${movies.idempotency.purge-interval}")
+    public void purge() {
+        var purged = jdbcTemplate.update("DELETE FROM idempotency_key WHERE created_at <= ?", expiry());
+        if (purged > 0) {
+            log.debug("Purged {} expired idempotency keys", purged);
+        }
+    }
+
+    private Timestamp expiry() {
+        return Timestamp.from(Instant.now().minus(ttl));
+    }
+
+    private String write(MovieDto response) {
+        try {
+            return objectMapper.writeValueAsString(response);
+        } catch (JsonProcessingException e) {
+            throw new ServerError("Unable to store response", e);
+        }
+    }
+
+    private MovieDto read(String response) {
+        try {
+            return objectMapper.readValue(response, MovieDto.class);
+        } catch (JsonProcessingException e) {
+            throw new ServerError("Unable to read stored response", e);
+        }
+    }
+}
@@ -0,0 +1,177 @@
+package com.ingemark.movies.service;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.deser.DeserializationProblemHandler;
+import com.ingemark.movies.config.MovieFormats;
+import com.ingemark.movies.model.UuidV7Generator;
+import com.ingemark.movies.model.dto.BulkImportResult;
+import com.ingemark.movies.model.dto.BulkItemResult;
+import com.ingemark.movies.model.dto.MovieDto;
+import com.ingemark.movies.model.exception.BadRequest;
+import jakarta.validation.Validator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Loads movies from a JSON array or an NDJSON stream, or their Smile and CBOR equivalents, without materializing
+ * the whole payload.
+ * <p>
+ * Items are validated one by one and inserted in JDBC batches of {@code movies.bulk.batch-size}, each batch in
+ * its own transaction. A {@code null} item is reported as invalid like any other item that fails validation. Codes that already exist are skipped by {@code ON CONFLICT DO NOTHING} and reported back
+ * as {@link BulkItemResult.Status#DUPLICATE_CODE} instead of failing the batch. Every batch that inserted
+ * anything bumps the {@link CatalogueVersion} once and records its movies in {@link CatalogueChanges}.
+ * <p>
+ * A malformed item ends the import. Before the first batch is written that is a {@link BadRequest}; afterwards
+ * the items before it are still imported and it is reported as {@link BulkItemResult.Status#MALFORMED}, the rest of
+ * the payload is not read.
+ */
+@Service
+public class MovieBulkImportService {
+
+    private static final String INSERT_MOVIE = """
+            INSERT INTO movie (id, code, name, price, is_available)
+            VALUES (?, ?, ?, ?, ?)
+            ON CONFLICT (code) DO NOTHING
+            """;
+
+    // MappingIterator hands a null item to the bean deserializer, which rejects it; read it as null instead
+    private static final DeserializationProblemHandler NULL_ITEMS = new DeserializationProblemHandler() {
+        @Override
+        public Object handleUnexpectedToken(DeserializationContext ctxt, JavaType targetType, JsonToken t,
+                                            JsonParser p, String failureMsg) {
+            return t == JsonToken.VALUE_NULL && targetType.hasRawClass(MovieDto.class) ? null : NOT_HANDLED;
+        }
+    };
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final CatalogueVersion catalogueVersion;
+    private final CatalogueChanges catalogueChanges;
+    private final MovieCodeFilter movieCodeFilter;
+    private final MovieFormats movieFormats;
+    private final Validator validator;
+    private final int batchSize;
+
+    public MovieBulkImportService(JdbcTemplate jdbcTemplate,
+                                  TransactionTemplate transactionTemplate,
+                                  CatalogueVersion catalogueVersion,
+                                  CatalogueChanges catalogueChanges,
+                                  MovieCodeFilter movieCodeFilter,
+                                  MovieFormats movieFormats,
+                                  Validator validator,
+                                  @Value("${movies.bulk.batch-size}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.catalogueVersion = catalogueVersion;
+        this.catalogueChanges = catalogueChanges;
+        this.movieCodeFilter = movieCodeFilter;
+        this.movieFormats = movieFormats;
+        this.validator = validator;
+        this.batchSize = batchSize;
+    }
+
+    public BulkImportResult importMovies(InputStream input, MediaType contentType) throws IOException {
+        var results = new ArrayList<BulkItemResult>();
+        var batch = new ArrayList<PendingMovie>(batchSize);
+        var index = 0;
+        var written = false;
+
+        try (var items = movieFormats.reader(contentType).withHandler(NULL_ITEMS).<MovieDto>readValues(input)) {
+            while (items.hasNextValue()) {
+                var movie = items.nextValue();
+                if (movie == null) {
+                    results.add(BulkItemResult.invalid(index++, null, List.of("item: must not be null")));
+                    continue;
+                }
+                var violations = validator.validate(movie);
+                if (!violations.isEmpty()) {
+                    results.add(BulkItemResult.invalid(index++, movie.getCode(), violations.stream()
+                            .map(it -> it.getPropertyPath() + ": " + it.getMessage())
+                            .sorted()
+                            .toList()));
+                    continue;
+                }
+
+                batch.add(new PendingMovie(index++, UuidV7Generator.next(), movie));
+                if (batch.size() == batchSize) {
+                    results.addAll(insert(batch));
+                    batch.clear();
+                    written = true;
+                }
+            }
+        } catch (JsonProcessingException e) {
+            if (!written) {
+                throw new BadRequest("Malformed movie at index " + index, e);
+            }
+            // earlier batches are committed, report them instead of failing the whole request
+            results.addAll(insert(batch));
+            results.add(BulkItemResult.malformed(index, e.getOriginalMessage()));
+            return BulkImportResult.of(results);
+        }
+
+        results.addAll(insert(batch));
+        return BulkImportResult.of(results);
+    }
+
+    private List<BulkItemResult> insert(List<PendingMovie> batch) {
+        if (batch.isEmpty()) {
+            return List.of();
+        }
+
+        var updateCounts = transactionTemplate.execute(status -> {
+            var counts = jdbcTemplate.batchUpdate(INSERT_MOVIE, batch, batch.size(),
+                    (ps, pending) -> {
+                        ps.setObject(1, pending.id());
+                        ps.setString(2, pending.movie().getCode());
+                        ps.setString(3, pending.movie().getName());
+                        ps.setBigDecimal(4, pending.movie().getPriceEur());
+                        ps.setBoolean(5, pending.movie().getIsAvailable());
+                    });
+            var created = new ArrayList<MovieDto>();
+            for (int i = 0; i < batch.size(); i++) {
+                if (counts[0][i] > 0) {
+                    var pending = batch.get(i);
+                    var movie = pending.movie();
+                    created.add(MovieDto.builder()
+                            .id(pending.id())
+                            .code(movie.getCode())
+                            .name(movie.getName())
+                            .priceEur(movie.getPriceEur())
+                            .isAvailable(movie.getIsAvailable())
+                            .build());
+                }
+            }
+            if (!created.isEmpty()) {
+                catalogueVersion.bump();
+                catalogueChanges.created(created);
+            }
+            return counts;
+        });
+
+        var results = new ArrayList<BulkItemResult>(batch.size());
+        for (int i = 0; i < batch.size(); i++) {
+            var pending = batch.get(i);
+            movieCodeFilter.put(pending.movie().getCode());
+            results.add(updateCounts[0][i] > 0
+                    ? BulkItemResult.created(pending.index(), pending.id(), pending.movie().getCode())
+                    : BulkItemResult.duplicateCode(pending.index(), pending.movie().getCode()));
+        }
+        return results;
+    }
+
+    private record PendingMovie(int index, UUID id, MovieDto movie) {
+    }
+}
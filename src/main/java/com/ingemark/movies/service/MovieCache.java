@@ -0,0 +1,83 @@
+package com.ingemark.movies.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.ingemark.movies.model.Movie;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Bounded in-process cache of movies by id, with a secondary index from code to id.
+ * <p>
+ * Only catalogue data is cached, prices in other currencies are always computed by the caller with the current
+ * exchange rate. Loads run outside of Caffeine's compute methods so a slow query never holds a cache lock.
+ */
+@Component
+public class MovieCache {
+
+    private final Cache<UUID, Movie> byId;
+    private final Cache<String, UUID> idByCode;
+
+    public MovieCache(@Value("${movies.cache.maximum-size}") long maximumSize,
+                      @Value("${movies.cache.expire-after-write}") Duration expireAfterWrite,
+                      MeterRegistry meterRegistry) {
+        this.byId = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+        this.idByCode = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, byId, "movies");
+        CaffeineCacheMetrics.monitor(meterRegistry, idByCode, "movie-codes");
+    }
+
+    public Optional<Movie> getById(UUID id, Function<UUID, Optional<Movie>> loader) {
+        var cached = byId.getIfPresent(id);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+
+        var loaded = loader.apply(id);
+        loaded.ifPresent(this::put);
+        return loaded;
+    }
+
+    public Optional<Movie> getByCode(String code, Function<String, Optional<Movie>> loader) {
+        var id = idByCode.getIfPresent(code);
+        var cached = id == null ? null : byId.getIfPresent(id);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+
+        var loaded = loader.apply(code);
+        loaded.ifPresent(this::put);
+        return loaded;
+    }
+
+    public void put(Movie movie) {
+        byId.put(movie.getId(), movie);
+        idByCode.put(movie.getCode(), movie.getId());
+    }
+
+    public void evict(UUID id, String code) {
+        byId.invalidate(id);
+        idByCode.invalidate(code);
+    }
+
+    public void evictAll() {
+        byId.invalidateAll();
+        idByCode.invalidateAll();
+    }
+}
@@ -0,0 +1,198 @@
+package com.ingemark.movies.service;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGProperty;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.jdbc.JdbcConnectionDetails;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Properties;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps this instance's {@link MovieCache} and {@link MovieCodeFilter} in step with writes made anywhere else, other
+ * instances or straight SQL, through the {@code movie_changes} notifications sent by the trigger on {@code movie}.
+ * <p>
+ * Listens on its own connection to the primary, outside the pool, opened with the same connection details and
+ * {@code spring.datasource.hikari.data-source-properties} as the pool. Notifications sent while that connection is down
+ * are lost, so every (re)connect starts with a full resync: the cache is emptied and, after a reconnect, the code
+ * filter reloaded. Inserts only feed the code filter, the cache never holds a movie before it exists.
+ */
+@Slf4j
+@Component
+public class MovieChangeListener {
+
+    static final String CHANNEL = "movie_changes";
+    static final String APPLICATION_NAME = "movies-change-listener";
+
+    private static final int POLL_TIMEOUT_MILLIS = 1000;
+    private static final int VALIDATION_TIMEOUT_SECONDS = 5;
+
+    private final ObjectProvider<JdbcConnectionDetails> connectionDetails;
+    private final DataSourceProperties dataSourceProperties;
+    private final Environment environment;
+    private final MovieCache movieCache;
+    private final MovieCodeFilter movieCodeFilter;
+    private final ObjectMapper objectMapper;
+    private final Duration reconnectDelay;
+
+    private final AtomicLong resyncs = new AtomicLong();
+    private volatile boolean running;
+    private Thread thread;
+
+    public MovieChangeListener(ObjectProvider<JdbcConnectionDetails> connectionDetails,
+                               DataSourceProperties dataSourceProperties,
+                               Environment environment,
+                               MovieCache movieCache,
+                               MovieCodeFilter movieCodeFilter,
+                               ObjectMapper objectMapper,
+                               @Value("${movies.cache.reconnect-delay}") Duration reconnectDelay,
+                               MeterRegistry meterRegistry) {
+        this.connectionDetails = connectionDetails;
+        this.dataSourceProperties = dataSourceProperties;
+        this.environment = environment;
+        this.movieCache = movieCache;
+        this.movieCodeFilter = movieCodeFilter;
+        this.objectMapper = objectMapper;
+        this.reconnectDelay = reconnectDelay;
+
+        FunctionCounter.builder("movies.cache.resyncs", resyncs, AtomicLong::get)
+                .description("Full cache resyncs after (re)subscribing to movie changes")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void start() {
+        if (thread == null) {
+            running = true;
+            thread = Thread.ofPlatform().name("movie-changes").daemon().start(this::listen);
+        }
+    }
+
+    @PreDestroy
+    public synchronized void stop() throws InterruptedException {
+        running = false;
+        if (thread != null) {
+            thread.join(Duration.ofMillis(2L * POLL_TIMEOUT_MILLIS));
+            thread = null;
+        }
+    }
+
+    private void listen() {
+        var reconnect = false;
+        while (running) {
+            try (var connection = connect(); var statement = connection.createStatement()) {
+                statement.execute("LISTEN " + CHANNEL);
+                resync(reconnect);
+                reconnect = true;
+
+                var pgConnection = connection.unwrap(PGConnection.class);
+                while (running) {
+                    var notifications = pgConnection.getNotifications(POLL_TIMEOUT_MILLIS);
+                    if (notifications == null || notifications.length == 0) {
+                        if (!connection.isValid(VALIDATION_TIMEOUT_SECONDS)) {
+                            throw new SQLException("Movie change connection is no longer valid");
+                        }
+                        continue;
+                    }
+                    for (var notification : notifications) {
+                        apply(notification.getParameter());
+                    }
+                }
+            } catch (SQLException | RuntimeException e) {
+                if (running) {
+                    log.warn("Lost the movie change subscription, reconnecting in {}", reconnectDelay, e);
+                    sleep(reconnectDelay);
+                }
+            }
+        }
+    }
+
+    /**
+     * Same resolution as the pool: connection details when a service connection provides them, otherwise
+     * {@code spring.datasource.*}. The connection is named {@value APPLICATION_NAME} unless an application name is
+     * configured for the pool.
+     */
+    private Connection connect() throws SQLException {
+        var properties = new Properties();
+        properties.putAll(Binder.get(environment)
+                .bind("spring.datasource.hikari.data-source-properties", Bindable.mapOf(String.class, String.class))
+                .orElse(Map.of()));
+        properties.putIfAbsent(PGProperty.APPLICATION_NAME.getName(), APPLICATION_NAME);
+
+        var details = connectionDetails.getIfAvailable();
+        var url = details == null ? dataSourceProperties.determineUrl() : details.getJdbcUrl();
+        var username = details == null ? dataSourceProperties.determineUsername() : details.getUsername();
+        var password = details == null ? dataSourceProperties.determinePassword() : details.getPassword();
+        if (username != null) {
+            PGProperty.USER.set(properties, username);
+        }
+        if (password != null) {
+            PGProperty.PASSWORD.set(properties, password);
+        }
+        return DriverManager.getConnection(url, properties);
+    }
+
+    private void resync(boolean reloadCodes) {
+        movieCache.evictAll();
+        if (reloadCodes) {
+            movieCodeFilter.load();
+        }
+        resyncs.incrementAndGet();
+        log.info("Subscribed to movie changes, cache cleared");
+    }
+
+    void apply(String payload) {
+        MovieChange change;
+        try {
+            change = objectMapper.readValue(payload, MovieChange.class);
+        } catch (JsonProcessingException e) {
+            log.warn("Unreadable movie change {}, clearing the cache", payload, e);
+            movieCache.evictAll();
+            return;
+        }
+
+        switch (change.op()) {
+            case "INSERT" -> movieCodeFilter.put(change.code());
+            case "UPDATE" -> {
+                movieCache.evict(change.id(), change.oldCode());
+                movieCache.evict(change.id(), change.code());
+                movieCodeFilter.put(change.code());
+            }
+            case "DELETE" -> movieCache.evict(change.id(), change.oldCode());
+            default -> movieCache.evictAll();
+        }
+    }
+
+    private void sleep(Duration duration) {
+        try {
+            Thread.sleep(duration);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            running = false;
+        }
+    }
+
+    record MovieChange(String op, UUID id, String code, @JsonProperty("old_code") String oldCode) {
+    }
+}
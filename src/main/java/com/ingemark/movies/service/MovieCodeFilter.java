@@ -0,0 +1,155 @@
+package com.ingemark.movies.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bloom filter of movie codes, sized for {@code movies.codes.expected-insertions} codes at a
+ * {@code movies.codes.false-positive-rate}. A code it has never seen is certainly not in the catalogue, as far as
+ * this instance knows; a code it might have seen still has to be confirmed against the database.
+ * <p>
+ * It is only a shortcut. Codes written by other instances or straight to the database arrive through
+ * {@link MovieChangeListener} and are missing while it is disconnected, which is harmless because every insert is
+ * {@code ON CONFLICT DO NOTHING} anyway. Codes are never removed, so deleted movies only cost an extra lookup.
+ * Until the catalogue has been loaded the filter answers "might contain" for every code.
+ */
+@Slf4j
+@Component
+public class MovieCodeFilter {
+
+    private static final int LOAD_FETCH_SIZE = 10_000;
+
+    private final AtomicLongArray bits;
+    private final long bitCount;
+    private final int hashCount;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate readOnly;
+    private final Executor executor;
+    private volatile boolean loaded;
+
+    @Autowired
+    public MovieCodeFilter(@Value("${movies.codes.expected-insertions}") long expectedInsertions,
+                           @Value("${movies.codes.false-positive-rate}") double falsePositiveRate,
+                           JdbcTemplate jdbcTemplate,
+                           PlatformTransactionManager transactionManager,
+                           @Qualifier("applicationTaskExecutor") Executor executor) {
+        this(expectedInsertions, falsePositiveRate, jdbcTemplate, readOnly(transactionManager), executor);
+    }
+
+    MovieCodeFilter(long expectedInsertions, double falsePositiveRate) {
+        this(expectedInsertions, falsePositiveRate, null, (TransactionTemplate) null, null);
+        this.loaded = true;
+    }
+
+    private MovieCodeFilter(long expectedInsertions, double falsePositiveRate, JdbcTemplate jdbcTemplate,
+                            TransactionTemplate readOnly, Executor executor) {
+        var optimalBits = (long) Math.ceil(-expectedInsertions * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        this.bits = new AtomicLongArray(Math.toIntExact(Math.max(1, (optimalBits + 63) / 64)));
+        this.bitCount = bits.length() * 64L;
+        this.hashCount = Math.max(1, (int) Math.round((double) bitCount / expectedInsertions * Math.log(2)));
+        this.jdbcTemplate = jdbcTemplate;
+        this.readOnly = readOnly;
+        this.executor = executor;
+    }
+
+    private static TransactionTemplate readOnly(PlatformTransactionManager transactionManager) {
+        var template = new TransactionTemplate(transactionManager);
+        template.setReadOnly(true);
+        return template;
+    }
+
+    /**
+     * Seeds the filter with every code in the catalogue in the background, so readiness does not wait for a full scan
+     * of {@code movie}. Codes are read with a cursor so they are never all in memory. Until the scan finishes every code
+     * is confirmed against the database; if it fails, that stays the case.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        executor.execute(() -> {
+            try {
+                var count = loadCodes();
+                loaded = true;
+                log.info("Loaded {} movie codes into a {} bit filter with {} hashes", count, bitCount, hashCount);
+            } catch (RuntimeException e) {
+                log.warn("Could not load movie codes, every code will be confirmed against the database", e);
+            }
+        });
+    }
+
+    private long loadCodes() {
+        return readOnly.execute(status -> {
+            var count = new long[1];
+            jdbcTemplate.query(connection -> {
+                var statement = connection.prepareStatement("SELECT code FROM movie");
+                statement.setFetchSize(LOAD_FETCH_SIZE);
+                return statement;
+            }, (RowCallbackHandler) rs -> {
+                put(rs.getString(1));
+                count[0]++;
+            });
+            return count[0];
+        });
+    }
+
+    public void put(String code) {
+        var hash = hash(code);
+        var h1 = mix(hash);
+        var h2 = mix(hash ^ 0x9E3779B97F4A7C15L) | 1;
+        for (int i = 0; i < hashCount; i++) {
+            var bit = Math.floorMod(h1 + i * h2, bitCount);
+            var mask = 1L << bit;
+            var word = (int) (bit >>> 6);
+            if ((bits.get(word) & mask) == 0) {
+                bits.getAndAccumulate(word, mask, (current, set) -> current | set);
+            }
+        }
+    }
+
+    /**
+     * {@code false} means the code was certainly never {@link #put} and is not in the catalogue loaded at startup.
+     */
+    public boolean mightContain(String code) {
+        if (!loaded) {
+            return true;
+        }
+        var hash = hash(code);
+        var h1 = mix(hash);
+        var h2 = mix(hash ^ 0x9E3779B97F4A7C15L) | 1;
+        for (int i = 0; i < hashCount; i++) {
+            var bit = Math.floorMod(h1 + i * h2, bitCount);
+            if ((bits.get((int) (bit >>> 6)) & 1L << bit) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // 64-bit FNV-1a over the code's chars
+    private static long hash(String code) {
+        var hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < code.length(); i++) {
+            hash ^= code.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    // SplitMix64 finalizer, spreads the FNV hash over all bits
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -1,68 +1,278 @@
 package com.ingemark.movies.service;
 
-import com.fasterxml.jackson.annotation.JsonProperty;
-import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
-import com.ingemark.movies.config.ComaBigDecimalDeserializer;
+import com.ingemark.movies.model.MovieRow;
+import com.ingemark.movies.model.dto.CreatedMovie;
 import com.ingemark.movies.model.dto.MovieDto;
-import com.ingemark.movies.model.exception.ServerError;
+import com.ingemark.movies.model.dto.MovieLookupRequest;
+import com.ingemark.movies.model.dto.MovieLookupResult;
+import com.ingemark.movies.model.dto.MoviePage;
+import com.ingemark.movies.model.exception.BadRequest;
+import com.ingemark.movies.model.exception.Conflict;
+import com.ingemark.movies.repository.MovieFilter;
 import com.ingemark.movies.repository.MovieRepository;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestClient;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
-import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDate;
 import java.util.*;
+import java.util.function.Consumer;
 
 @Service
 public class MoviesService {
 
-    private final String hnbUrl;
     private final MovieRepository movieRepository;
-    private final RestClient restClient;
+    private final ExchangeRateProvider exchangeRateProvider;
+    private final MovieCache movieCache;
+    private final CatalogueVersion catalogueVersion;
+    private final PriceConverter priceConverter;
+    private final MovieCodeFilter movieCodeFilter;
+    private final IdempotencyKeys idempotencyKeys;
+    private final CatalogueChanges catalogueChanges;
+    private final TransactionTemplate transactionTemplate;
+    private final DegradedMode degradedMode;
+    private final int maxLookupKeys;
 
-    public MoviesService(@Value("${hnb.url}") String hnbUrl, MovieRepository movieRepository, RestClient restClient) {
-        this.hnbUrl = hnbUrl;
+    public MoviesService(MovieRepository movieRepository,
+                         ExchangeRateProvider exchangeRateProvider,
+                         MovieCache movieCache,
+                         CatalogueVersion catalogueVersion,
+                         PriceConverter priceConverter,
+                         MovieCodeFilter movieCodeFilter,
+                         IdempotencyKeys idempotencyKeys,
+                         CatalogueChanges catalogueChanges,
+                         TransactionTemplate transactionTemplate,
+                         @Value("${movies.pricing.degraded-mode}") DegradedMode degradedMode,
+                         @Value("${movies.lookup.max-keys}") int maxLookupKeys) {
         this.movieRepository = movieRepository;
-        this.restClient = restClient;
+        this.exchangeRateProvider = exchangeRateProvider;
+        this.movieCache = movieCache;
+        this.catalogueVersion = catalogueVersion;
+        this.priceConverter = priceConverter;
+        this.movieCodeFilter = movieCodeFilter;
+        this.idempotencyKeys = idempotencyKeys;
+        this.catalogueChanges = catalogueChanges;
+        this.transactionTemplate = transactionTemplate;
+        this.degradedMode = degradedMode;
+        this.maxLookupKeys = maxLookupKeys;
     }
 
-    public Optional<MovieDto> getMovie(UUID movieId) {
-        return movieRepository.findById(movieId)
-                .map(it -> MovieDto.from(it, getExchangeRate().multiply(it.getPrice())));
+    /**
+     * Pricing for a request, converting with the rate list published for {@code date} if given, otherwise the
+     * current one, into USD and every currency in {@code currencies}. Asking for a currency HNB does not publish
+     * is a {@link BadRequest}.
+     */
+    public Pricing resolvePricing(LocalDate date, List<String> currencies) {
+        var rate = resolveRate(date);
+        var requested = currencies == null ? List.<String>of() : currencies.stream()
+                .map(it -> it.trim().toUpperCase(Locale.ROOT))
+                .filter(it -> !it.isEmpty())
+                .distinct()
+                .toList();
+        if (rate != null) {
+            requested.stream()
+                    .filter(it -> !rate.supports(it))
+                    .findFirst()
+                    .ifPresent(it -> {
+                        throw new BadRequest("No exchange rate published for " + it);
+                    });
+        }
+        return new Pricing(rate == null ? null : priceConverter.ratesFor(rate), requested);
+    }
+
+    /**
+     * {@code null} means converted prices are left out, which only happens for the current rate in
+     * {@link DegradedMode#OMIT_USD} or when no rate was ever fetched.
+     */
+    private RateSnapshot resolveRate(LocalDate date) {
+        if (date != null) {
+            return exchangeRateProvider.getSnapshot(date);
+        }
+
+        return switch (degradedMode) {
+            case DISABLED -> exchangeRateProvider.getSnapshot();
+            case OMIT_USD -> exchangeRateProvider.findSnapshot(false).orElse(null);
+            case LAST_KNOWN_RATE -> exchangeRateProvider.findSnapshot(true).orElse(null);
+        };
+    }
+
+    /**
+     * Version of the catalogue as a whole, bumped by every write that goes through this service.
+     */
+    public long getCatalogueVersion() {
+        return catalogueVersion.current();
+    }
+
+    public Optional<MovieDto> getMovie(UUID movieId, Pricing pricing) {
+        return movieCache.getById(movieId, movieRepository::findById)
+                .map(pricing::toDto);
+    }
+
+    public Optional<MovieDto> getMovieByCode(String code, Pricing pricing) {
+        return movieCache.getByCode(code, movieRepository::findByCode)
+                .map(pricing::toDto);
     }
 
-    public List<MovieDto> getMovies() {
-        var exchangeRate = getExchangeRate();
-        return movieRepository.findAll()
+    /**
+     * Listings are read as {@link com.ingemark.movies.model.MovieRow} projections in a read-only transaction,
+     * nothing is put in the persistence context, so there is nothing to dirty check or flush.
+     */
+    @Transactional(readOnly = true)
+    public List<MovieDto> getMovies(MovieFilter filter, Pricing pricing) {
+        return movieRepository.findRows(filter, null, null)
                 .stream()
-                .map(it -> MovieDto.from(it, exchangeRate.multiply(it.getPrice())))
+                .map(pricing::toDto)
                 .toList();
     }
 
-    public MovieDto createMovie(MovieDto movieDto) {
-        var movie = movieRepository.save(movieDto.toMovie());
-        return MovieDto.from(movie, getExchangeRate().multiply(movie.getPrice()));
+    @Transactional(readOnly = true)
+    public MoviePage getMoviePage(MovieFilter filter, String cursor, int limit, Pricing pricing) {
+        var after = cursor == null ? null : MoviePage.decodeCursor(cursor);
+        var movies = movieRepository.findRows(filter, after, limit);
+
+        var nextCursor = movies.size() < limit ? null : MoviePage.encodeCursor(movies.getLast().id());
+        return new MoviePage(movies.stream()
+                .map(pricing::toDto)
+                .toList(), nextCursor);
     }
 
-    private BigDecimal getExchangeRate() {
-        var typeReference = new ParameterizedTypeReference<List<ExchangeRate>>() {
-        };
+    /**
+     * Resolves up to {@code movies.lookup.max-keys} ids and codes with one query, all priced with the same
+     * {@code pricing}. Keys that match nothing are reported rather than failing the lookup.
+     */
+    @Transactional(readOnly = true)
+    public MovieLookupResult lookupMovies(MovieLookupRequest request, Pricing pricing) {
+        if (request.ids().stream().anyMatch(Objects::isNull) || request.codes().stream().anyMatch(Objects::isNull)) {
+            throw new BadRequest("Ids and codes to look up must not be null");
+        }
+        if (request.size() > maxLookupKeys) {
+            throw new BadRequest("At most " + maxLookupKeys + " ids and codes can be looked up at once");
+        }
+        if (request.size() == 0) {
+            return new MovieLookupResult(List.of(), List.of(), List.of());
+        }
 
-        try {
-            return Objects.requireNonNull(restClient.get()
-                            .uri(hnbUrl + "/tecajn-eur/v3?valuta=USD")
-                            .retrieve()
-                            .body(typeReference))
-                    .getFirst()
-                    .srednjiTecaj();
-        } catch (Exception e) {
-            throw new ServerError("Unable to reach HNB api", e);
+        var rows = movieRepository.findRowsByIdsOrCodes(request.ids(), request.codes());
+        var byId = new HashMap<UUID, MovieRow>();
+        var byCode = new HashMap<String, MovieRow>();
+        for (var row : rows) {
+            byId.put(row.id(), row);
+            byCode.put(row.code(), row);
+        }
+
+        var found = new LinkedHashMap<UUID, MovieDto>();
+        var missingIds = new ArrayList<UUID>();
+        for (var id : request.ids()) {
+            var row = byId.get(id);
+            if (row == null) {
+                missingIds.add(id);
+            } else {
+                found.computeIfAbsent(row.id(), it -> pricing.toDto(row));
+            }
+        }
+        var missingCodes = new ArrayList<String>();
+        for (var code : request.codes()) {
+            var row = byCode.get(code);
+            if (row == null) {
+                missingCodes.add(code);
+            } else {
+                found.computeIfAbsent(row.id(), it -> pricing.toDto(row));
+            }
+        }
+        return new MovieLookupResult(List.copyOf(found.values()), missingIds, missingCodes);
+    }
+
+    /**
+     * Pushes every movie matching {@code filter} to {@code consumer} straight from a database cursor. Rows are read
+     * as projections, so memory use does not grow with the size of the catalogue.
+     */
+    @Transactional(readOnly = true)
+    public void streamMovies(MovieFilter filter, Pricing pricing, Consumer<MovieDto> consumer) {
+        try (var movies = movieRepository.streamRows(filter)) {
+            movies.forEach(it -> consumer.accept(pricing.toDto(it)));
         }
     }
 
-    private record ExchangeRate(
-            @JsonProperty("srednji_tecaj") @JsonDeserialize(using = ComaBigDecimalDeserializer.class) BigDecimal srednjiTecaj
-    ) {
+    /**
+     * Creates a movie, or throws {@link Conflict} when its code is taken. Codes the {@link MovieCodeFilter} might
+     * have seen are looked up first, so known duplicates are turned away without opening a write transaction.
+     * The insert itself is {@code ON CONFLICT DO NOTHING}, a duplicate that slips past the lookup is detected
+     * without a failed statement either.
+     * <p>
+     * With an {@code idempotencyKey}, a retry of a request that already succeeded replays its response instead,
+     * see {@link IdempotencyKeys}.
+     */
+    public CreatedMovie createMovie(MovieDto movieDto, Pricing pricing, String idempotencyKey) {
+        if (idempotencyKey != null && (idempotencyKey.isBlank() || idempotencyKey.length() > IdempotencyKeys.MAX_KEY_LENGTH)) {
+            throw new BadRequest("Idempotency-Key must be between 1 and " + IdempotencyKeys.MAX_KEY_LENGTH + " characters");
+        }
+
+        var fingerprint = idempotencyKey == null ? null : fingerprint(movieDto);
+        if (idempotencyKey != null) {
+            var stored = idempotencyKeys.find(idempotencyKey, fingerprint);
+            if (stored.isPresent()) {
+                return new CreatedMovie(stored.get(), true);
+            }
+        }
+
+        var code = movieDto.getCode();
+        if (movieCodeFilter.mightContain(code) && movieRepository.existsByCode(code)) {
+            throw new Conflict("Movie with code " + code + " already exists");
+        }
+
+        var created = transactionTemplate.execute(status -> {
+            if (idempotencyKey != null && !idempotencyKeys.claim(idempotencyKey, fingerprint)) {
+                // a concurrent request with the same key committed while we waited for the claim
+                return idempotencyKeys.find(idempotencyKey, fingerprint)
+                        .map(it -> new CreatedMovie(it, true))
+                        .orElseThrow(() -> new Conflict("Request with this Idempotency-Key is in progress"));
+            }
+
+            var movie = movieRepository.insertIfAbsent(movieDto.toMovie());
+            if (movie.isEmpty()) {
+                status.setRollbackOnly();
+                return null;
+            }
+
+            catalogueVersion.bump();
+            var response = pricing.toDto(movie.get());
+            catalogueChanges.created(List.of(response));
+            if (idempotencyKey != null) {
+                idempotencyKeys.complete(idempotencyKey, response);
+            }
+            var inserted = movie.get();
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    movieCache.put(inserted);
+                }
+            });
+            return new CreatedMovie(response, false);
+        });
+
+        movieCodeFilter.put(code);
+        if (created == null) {
+            throw new Conflict("Movie with code " + code + " already exists");
+        }
+        return created;
+    }
+
+    private static String fingerprint(MovieDto movie) {
+        var request = String.join("\n",
+                movie.getCode(),
+                movie.getName(),
+                movie.getPriceEur().stripTrailingZeros().toPlainString(),
+                String.valueOf(movie.getIsAvailable()));
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(request.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
     }
 }
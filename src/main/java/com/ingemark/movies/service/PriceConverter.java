@@ -0,0 +1,159 @@
+package com.ingemark.movies.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Converts EUR prices with a fixed {@code movies.pricing.scale} and {@code movies.pricing.rounding-mode}, so every
+ * converted price comes out with the same number of decimals regardless of the rate's or the price's scale.
+ * <p>
+ * A {@link RateSnapshot} is prepared into {@link Rates} once, with each rate split into a {@code long} unscaled value
+ * and a scale. Prepared rates are cached by the rate list's date and fetch time, so requests for the current rate
+ * and for past dates each reuse their own, whichever {@link RateSnapshot} instance they were handed. Conversions then multiply and round in {@code long} arithmetic and only fall back to
+ * {@link BigDecimal} when a value does not fit. {@link Rates} is immutable and safe to share between threads.
+ */
+@Component
+public class PriceConverter {
+
+    // the current rate list plus the past days being asked for at the same time
+    private static final int MAX_CACHED_RATE_LISTS = 64;
+
+    private final int scale;
+    private final RoundingMode roundingMode;
+    private final Cache<RateKey, Rates> prepared = Caffeine.newBuilder()
+            .maximumSize(MAX_CACHED_RATE_LISTS)
+            .build();
+
+    public PriceConverter(@Value("${movies.pricing.scale}") int scale,
+                          @Value("${movies.pricing.rounding-mode}") RoundingMode roundingMode) {
+        this.scale = scale;
+        this.roundingMode = roundingMode;
+    }
+
+    public Rates ratesFor(RateSnapshot snapshot) {
+        return prepared.get(new RateKey(snapshot.date(), snapshot.fetchedAt()),
+                key -> new Rates(snapshot, scale, roundingMode));
+    }
+
+    private record RateKey(LocalDate date, Instant fetchedAt) {
+    }
+
+    public static final class Rates {
+
+        private static final int MAX_LONG_DIGITS = 18;
+        private static final long[] POWERS_OF_TEN = new long[MAX_LONG_DIGITS + 1];
+
+        static {
+            POWERS_OF_TEN[0] = 1;
+            for (int i = 1; i < POWERS_OF_TEN.length; i++) {
+                POWERS_OF_TEN[i] = POWERS_OF_TEN[i - 1] * 10;
+            }
+        }
+
+        private final RateSnapshot snapshot;
+        private final int scale;
+        private final RoundingMode roundingMode;
+        private final Map<String, ScaledRate> rates;
+
+        public Rates(RateSnapshot snapshot, int scale, RoundingMode roundingMode) {
+            this.snapshot = snapshot;
+            this.scale = scale;
+            this.roundingMode = roundingMode;
+
+            var scaled = new HashMap<String, ScaledRate>();
+            snapshot.rates().forEach((currency, rate) -> scaled.put(currency, ScaledRate.of(rate)));
+            this.rates = Map.copyOf(scaled);
+        }
+
+        public RateSnapshot snapshot() {
+            return snapshot;
+        }
+
+        /**
+         * {@code amountEur} in {@code currency} at the configured scale, or {@code null} when HNB did not publish
+         * a rate for it.
+         */
+        public BigDecimal convert(String currency, BigDecimal amountEur) {
+            var rate = rates.get(currency);
+            if (rate == null) {
+                return null;
+            }
+
+            if (rate.fitsLong() && amountEur.precision() <= MAX_LONG_DIGITS) {
+                var converted = convertExact(amountEur.unscaledValue().longValue(), amountEur.scale(), rate);
+                if (converted != null) {
+                    return converted;
+                }
+            }
+            return rate.value().multiply(amountEur).setScale(scale, roundingMode);
+        }
+
+        /**
+         * Returns {@code null} when the product or its rescaling would overflow a {@code long}.
+         */
+        private BigDecimal convertExact(long amount, int amountScale, ScaledRate rate) {
+            if (!multiplyFits(amount, rate.unscaled())) {
+                return null;
+            }
+            var product = amount * rate.unscaled();
+
+            var shift = amountScale + rate.scale() - scale;
+            if (Math.abs(shift) > MAX_LONG_DIGITS) {
+                return null;
+            }
+            if (shift < 0) {
+                var factor = POWERS_OF_TEN[-shift];
+                return multiplyFits(product, factor) ? BigDecimal.valueOf(product * factor, scale) : null;
+            }
+            return BigDecimal.valueOf(divideAndRound(product, POWERS_OF_TEN[shift]), scale);
+        }
+
+        private static boolean multiplyFits(long a, long b) {
+            var high = Math.multiplyHigh(a, b);
+            var low = a * b;
+            return high == 0 && low >= 0 || high == -1 && low < 0;
+        }
+
+        private long divideAndRound(long dividend, long divisor) {
+            var quotient = dividend / divisor;
+            var remainder = dividend % divisor;
+            if (remainder == 0) {
+                return quotient;
+            }
+
+            var signum = dividend < 0 ? -1 : 1;
+            var increment = switch (roundingMode) {
+                case UP -> true;
+                case DOWN -> false;
+                case CEILING -> signum > 0;
+                case FLOOR -> signum < 0;
+                case HALF_UP, HALF_DOWN, HALF_EVEN -> {
+                    // divisor is at most 10^18, so twice the remainder still fits
+                    var half = Long.compare(Math.abs(remainder) * 2, divisor);
+                    yield half > 0 || half == 0 && (roundingMode == RoundingMode.HALF_UP
+                            || roundingMode == RoundingMode.HALF_EVEN && (quotient & 1) != 0);
+                }
+                case UNNECESSARY -> throw new ArithmeticException("Rounding necessary");
+            };
+            return increment ? quotient + signum : quotient;
+        }
+    }
+
+    private record ScaledRate(BigDecimal value, long unscaled, int scale, boolean fitsLong) {
+
+        static ScaledRate of(BigDecimal rate) {
+            return rate.precision() <= Rates.MAX_LONG_DIGITS
+                    ? new ScaledRate(rate, rate.unscaledValue().longValue(), rate.scale(), true)
+                    : new ScaledRate(rate, 0, 0, false);
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.ingemark.movies.service;
+
+import com.ingemark.movies.model.Movie;
+import com.ingemark.movies.model.MovieRow;
+import com.ingemark.movies.model.dto.MovieDto;
+
+import java.math.BigDecimal;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * How a request wants its movies priced, the resolved rate list plus the currencies asked for on top of USD.
+ * {@code null} rates leave every converted price out.
+ */
+public record Pricing(PriceConverter.Rates rates, List<String> currencies) {
+
+    public Pricing {
+        currencies = List.copyOf(currencies);
+    }
+
+    public RateSnapshot rate() {
+        return rates == null ? null : rates.snapshot();
+    }
+
+    public MovieDto toDto(Movie movie) {
+        return toDto(MovieRow.of(movie));
+    }
+
+    public MovieDto toDto(MovieRow movie) {
+        if (rates == null) {
+            return MovieDto.from(movie, null, Map.of());
+        }
+
+        var prices = new LinkedHashMap<String, BigDecimal>();
+        for (var currency : currencies) {
+            prices.put(currency, rates.convert(currency, movie.price()));
+        }
+        return MovieDto.from(movie, rates.convert(RateSnapshot.USD, movie.price()), prices);
+    }
+}
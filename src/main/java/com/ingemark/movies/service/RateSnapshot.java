@@ -0,0 +1,29 @@
+package com.ingemark.movies.service;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Map;
+
+/**
+ * HNB middle rates against EUR, indexed by ISO currency code, as published for {@code date} and fetched
+ * at {@code fetchedAt}. The whole rate list is fetched at once, so converting to any currency in it costs no
+ * extra upstream call. Conversion itself is done by {@link PriceConverter}.
+ */
+public record RateSnapshot(Map<String, BigDecimal> rates, LocalDate date, Instant fetchedAt) {
+
+    public static final String USD = "USD";
+
+    public RateSnapshot {
+        rates = Map.copyOf(rates);
+    }
+
+    public boolean supports(String currency) {
+        return rates.containsKey(currency);
+    }
+
+    public Duration age() {
+        return Duration.between(fetchedAt, Instant.now());
+    }
+}
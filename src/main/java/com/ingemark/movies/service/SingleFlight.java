@@ -0,0 +1,51 @@
+package com.ingemark.movies.service;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Collapses concurrent calls for the same key into one execution.
+ * <p>
+ * The first caller runs the supplier, everyone arriving while it is in flight waits for
+ * and shares its result or its failure. Nothing is cached once the call completes.
+ */
+public class SingleFlight<K, V> {
+
+    private final ConcurrentHashMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+
+    public V execute(K key, Supplier<V> call) {
+        var promise = new CompletableFuture<V>();
+        var existing = inFlight.putIfAbsent(key, promise);
+        if (existing != null) {
+            return await(existing);
+        }
+
+        try {
+            var value = call.get();
+            promise.complete(value);
+            return value;
+        } catch (Throwable e) {
+            // errors too, or every waiter would block on the promise forever
+            promise.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, promise);
+        }
+    }
+
+    private V await(CompletableFuture<V> promise) {
+        try {
+            return promise.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.ingemark.movies.config;
+
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.ingemark.movies.model.dto.MovieDto;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.math.BigDecimal;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class MovieDtoSerializerTest {
+
+    private final ObjectMapper handWritten = Jackson2ObjectMapperBuilder.json().build();
+    private final ObjectMapper reflective = Jackson2ObjectMapperBuilder.json()
+            .mixIn(MovieDto.class, ReflectiveMovieDto.class)
+            .build();
+
+    @Test
+    void shouldWriteSameJsonAsAnnotations() throws Exception {
+        var prices = new LinkedHashMap<String, BigDecimal>();
+        prices.put("GBP", new BigDecimal("8.39"));
+        prices.put("JPY", new BigDecimal("1610.75"));
+        var movie = MovieDto.builder()
+                .id(UUID.randomUUID())
+                .code("1234567890")
+                .name("Movie \"1\"")
+                .priceEur(new BigDecimal("10.10"))
+                .priceUsd(new BigDecimal("10.49"))
+                .prices(prices)
+                .isAvailable(true)
+                .version(3L)
+                .build();
+
+        assertEquals(reflective.writeValueAsString(movie), handWritten.writeValueAsString(movie));
+    }
+
+    @Test
+    void shouldOmitEmptyPrices() throws Exception {
+        var movie = MovieDto.builder()
+                .code("1234567890")
+                .name("Movie 1")
+                .priceEur(new BigDecimal("10.1"))
+                .prices(Map.of())
+                .build();
+
+        assertEquals(reflective.writeValueAsString(movie), handWritten.writeValueAsString(movie));
+    }
+
+    @JsonSerialize(using = JsonSerializer.None.class)
+    abstract static class ReflectiveMovieDto {
+    }
+}
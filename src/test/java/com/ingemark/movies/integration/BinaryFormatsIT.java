@@ -0,0 +1,167 @@
+package com.ingemark.movies.integration;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import com.ingemark.movies.integration.configuration.ContainersConfig;
+import com.ingemark.movies.model.Movie;
+import com.ingemark.movies.model.dto.MovieDto;
+import com.ingemark.movies.repository.MovieRepository;
+import io.restassured.RestAssured;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.wiremock.spring.EnableWireMock;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.List;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static io.restassured.RestAssured.given;
+import static io.restassured.config.EncoderConfig.encoderConfig;
+import static io.restassured.config.RestAssuredConfig.newConfig;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.startsWith;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles({"test", "integration"})
+@EnableWireMock
+@Testcontainers
+@Import(ContainersConfig.class)
+public class BinaryFormatsIT {
+
+    private static final String SMILE = "application/x-jackson-smile";
+    private static final String CBOR = "application/cbor";
+
+    // MovieDto is only created through its constructor, which needs the parameter names module
+    private final ObjectMapper smileMapper = SmileMapper.builder().findAndAddModules().build();
+    private final ObjectMapper cborMapper = CBORMapper.builder().findAndAddModules().build();
+
+    @LocalServerPort
+    private Integer port;
+
+    @Autowired
+    private MovieRepository movieRepository;
+
+    private Movie movie;
+
+    @BeforeAll
+    public static void setup() {
+        // a charset on a binary body makes the server decode it as text
+        RestAssured.config = newConfig().encoderConfig(encoderConfig().appendDefaultContentCharsetToContentTypeIfUndefined(false));
+    }
+
+    @BeforeEach
+    public void setupTest() {
+        stubFor(get("/tecajn-eur/v3").willReturn(ok(
+                """
+                        [{"broj_tecajnice":"32","datum_primjene":"2025-02-14","drzava":"SAD","drzava_iso":"USA","kupovni_tecaj":"1,040600","prodajni_tecaj":"1,037400","sifra_valute":"840","srednji_tecaj":"1,039000","valuta":"USD"}]
+                        """)
+                .withHeader("Content-Type", "application/json")));
+        movieRepository.deleteAll();
+
+        movie = new Movie();
+        movie.setCode("1234567890");
+        movie.setName("Movie 1");
+        movie.setPrice(new BigDecimal("10.10"));
+        movie.setIsAvailable(true);
+        movieRepository.save(movie);
+    }
+
+    @Test
+    public void shouldListMoviesAsSmile() throws Exception {
+        var response = given().port(port)
+                .when().accept(SMILE)
+                .get("/movies")
+                .then().assertThat()
+                .statusCode(200)
+                .contentType(SMILE)
+                .header("Vary", containsString("Accept"))
+                .extract();
+
+        var movies = smileMapper.readValue(response.asByteArray(), MovieDto[].class);
+        assertEquals(1, movies.length);
+        assertEquals(movie.getId(), movies[0].getId());
+        assertEquals(0, movies[0].getPriceUsd().compareTo(movie.getPrice().multiply(new BigDecimal("1.039")).setScale(2, RoundingMode.HALF_EVEN)));
+
+        var jsonEtag = given().port(port)
+                .when().accept("application/json")
+                .get("/movies")
+                .then().assertThat()
+                .statusCode(200)
+                .extract().header("ETag");
+        assertNotEquals(jsonEtag, response.header("ETag"));
+    }
+
+    @Test
+    public void shouldReturnMovieAsCbor() throws Exception {
+        var body = given().port(port)
+                .when().accept(CBOR)
+                .get("/movies/" + movie.getId())
+                .then().assertThat()
+                .statusCode(200)
+                .contentType(CBOR)
+                .extract().asByteArray();
+
+        assertEquals(movie.getCode(), cborMapper.readValue(body, MovieDto.class).getCode());
+    }
+
+    @Test
+    public void shouldPreferJson_whenAcceptingAnything() {
+        given().port(port)
+                .when().accept("*/*")
+                .get("/movies")
+                .then().assertThat()
+                .statusCode(200)
+                .contentType(startsWith("application/json"))
+                .header("ETag", notNullValue());
+    }
+
+    @Test
+    public void shouldCreateMovieFromCbor() throws Exception {
+        var request = MovieDto.builder()
+                .code("1234567891")
+                .name("Movie 2")
+                .priceEur(new BigDecimal("12.1"))
+                .isAvailable(true)
+                .build();
+
+        given().port(port)
+                .body(cborMapper.writeValueAsBytes(request))
+                .contentType(CBOR)
+                .when().accept("application/json")
+                .post("/movies")
+                .then().assertThat()
+                .statusCode(201)
+                .body("code", equalTo("1234567891"));
+    }
+
+    @Test
+    public void shouldImportSmileArray() throws Exception {
+        var movies = List.of(
+                MovieDto.builder().code("1234567891").name("Movie 2").priceEur(new BigDecimal("12.1")).isAvailable(true).build(),
+                MovieDto.builder().code("1234567892").name("Movie 3").priceEur(new BigDecimal("13.1")).isAvailable(false).build());
+
+        given().port(port)
+                .body(smileMapper.writeValueAsBytes(movies))
+                .contentType(SMILE)
+                .when().accept("application/json")
+                .post("/movies/bulk")
+                .then().assertThat()
+                .statusCode(200)
+                .body("created", equalTo(2));
+
+        assertEquals(3, movieRepository.count());
+    }
+}
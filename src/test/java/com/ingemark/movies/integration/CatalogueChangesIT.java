@@ -0,0 +1,207 @@
+package com.ingemark.movies.integration;
+
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.ingemark.movies.controller.MoviesController;
+import com.ingemark.movies.integration.configuration.ContainersConfig;
+import com.ingemark.movies.model.dto.MovieDto;
+import com.ingemark.movies.repository.MovieRepository;
+import com.ingemark.movies.service.CatalogueChanges;
+import com.ingemark.movies.service.ExchangeRateProvider;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.wiremock.spring.EnableWireMock;
+import org.wiremock.spring.InjectWireMock;
+
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Iterator;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasKey;
+import static org.hamcrest.Matchers.not;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles({"test", "integration"})
+@EnableWireMock
+@Testcontainers
+@Import(ContainersConfig.class)
+public class CatalogueChangesIT {
+
+    @LocalServerPort
+    private Integer port;
+
+    @Autowired
+    private MovieRepository movieRepository;
+
+    @Autowired
+    private ExchangeRateProvider exchangeRateProvider;
+
+    @Autowired
+    private CatalogueChanges catalogueChanges;
+
+    @InjectWireMock
+    private WireMockServer wireMockServer;
+
+    private long head;
+
+    @BeforeEach
+    public void setupTest() {
+        wireMockServer.resetAll();
+        stubFor(get("/tecajn-eur/v3").willReturn(ok(
+                """
+                        [{"broj_tecajnice":"32","datum_primjene":"2025-02-14","drzava":"SAD","drzava_iso":"USA","kupovni_tecaj":"1,040600","prodajni_tecaj":"1,037400","sifra_valute":"840","srednji_tecaj":"1,039000","valuta":"USD"}]
+                        """)
+                .withHeader("Content-Type", "application/json")));
+        exchangeRateProvider.scheduledRefresh();
+        movieRepository.deleteAll();
+        head = catalogueChanges.head();
+    }
+
+    @Test
+    public void shouldReturnChangesInOrder_sinceOffset() {
+        createMovie("1234567890");
+        given().port(port)
+                .body("""
+                        [{"code":"1234567891","name":"Movie 1","price_eur":1.1,"is_available":true},
+                         {"code":"1234567890","name":"Duplicate","price_eur":1.1,"is_available":true}]
+                        """)
+                .contentType("application/json")
+                .when().accept("application/json")
+                .post("/movies/bulk")
+                .then().assertThat()
+                .statusCode(200);
+
+        var next = given().port(port)
+                .when().accept("application/json")
+                .queryParam("since", head)
+                .get("/movies/changes")
+                .then().assertThat()
+                .statusCode(200)
+                .body("size()", equalTo(2))
+                .body("[0].type", equalTo("created"))
+                .body("[0].movie.code", equalTo("1234567890"))
+                .body("[0].movie", not(hasKey("price_usd")))
+                .body("[1].movie.code", equalTo("1234567891"))
+                .extract().header(MoviesController.NEXT_OFFSET_HEADER);
+
+        given().port(port)
+                .when().accept("application/json")
+                .queryParam("since", next)
+                .get("/movies/changes")
+                .then().assertThat()
+                .statusCode(200)
+                .header(MoviesController.NEXT_OFFSET_HEADER, equalTo(next))
+                .body("size()", equalTo(0));
+    }
+
+    @Test
+    public void shouldLimitChanges() {
+        createMovie("1234567890");
+        createMovie("1234567891");
+
+        var next = given().port(port)
+                .when().accept("application/json")
+                .queryParam("since", head)
+                .queryParam("limit", 1)
+                .get("/movies/changes")
+                .then().assertThat()
+                .statusCode(200)
+                .body("size()", equalTo(1))
+                .body("[0].movie.code", equalTo("1234567890"))
+                .extract().header(MoviesController.NEXT_OFFSET_HEADER);
+
+        given().port(port)
+                .when().accept("application/json")
+                .queryParam("since", next)
+                .get("/movies/changes")
+                .then().assertThat()
+                .statusCode(200)
+                .body("size()", equalTo(1))
+                .body("[0].movie.code", equalTo("1234567891"));
+    }
+
+    @Test
+    public void shouldStreamChanges_andResumeAfterLastEventId() throws Exception {
+        createMovie("1234567890");
+        var first = catalogueChanges.head();
+        createMovie("1234567891");
+
+        var request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/movies/changes/stream?since=" + head))
+                .header("Accept", "text/event-stream")
+                .header(MoviesController.LAST_EVENT_ID_HEADER, String.valueOf(first))
+                .build();
+        // close() would wait for the stream to end, which it never does
+        var client = HttpClient.newHttpClient();
+        try {
+            var response = client.send(request, HttpResponse.BodyHandlers.ofLines());
+            assertEquals(200, response.statusCode());
+
+            var lines = response.body().iterator();
+            assertTimeoutPreemptively(Duration.ofSeconds(10), () -> {
+                var resumed = nextEvent(lines);
+                assertTrue(resumed.offset() > first);
+                assertTrue(resumed.data().contains("\"code\":\"1234567891\""), resumed.data());
+
+                createMovie("1234567892");
+                var pushed = nextEvent(lines);
+                assertTrue(pushed.offset() > resumed.offset());
+                assertEquals("created", pushed.type());
+                assertTrue(pushed.data().contains("\"code\":\"1234567892\""), pushed.data());
+            });
+        } finally {
+            client.shutdownNow();
+        }
+    }
+
+    private void createMovie(String code) {
+        given().port(port)
+                .body(MovieDto.builder()
+                        .code(code)
+                        .name("Movie " + code)
+                        .isAvailable(true)
+                        .priceEur(new BigDecimal("9.9"))
+                        .build())
+                .contentType("application/json")
+                .when().accept("application/json")
+                .post("/movies")
+                .then().assertThat()
+                .statusCode(201);
+    }
+
+    private static Event nextEvent(Iterator<String> lines) {
+        long offset = -1;
+        String type = null;
+        String data = null;
+        while (lines.hasNext()) {
+            var line = lines.next();
+            if (line.startsWith("id:")) {
+                offset = Long.parseLong(line.substring(3).trim());
+            } else if (line.startsWith("event:")) {
+                type = line.substring(6).trim();
+            } else if (line.startsWith("data:")) {
+                data = line.substring(5);
+            } else if (line.isEmpty() && data != null) {
+                return new Event(offset, type, data);
+            }
+        }
+        throw new AssertionError("Change stream ended");
+    }
+
+    private record Event(long offset, String type, String data) {
+    }
+}
@@ -0,0 +1,114 @@
+package com.ingemark.movies.integration;
+
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.ingemark.movies.controller.MoviesController;
+import com.ingemark.movies.integration.configuration.ContainersConfig;
+import com.ingemark.movies.model.Movie;
+import com.ingemark.movies.repository.MovieRepository;
+import io.restassured.RestAssured;
+import io.restassured.http.ContentType;
+import io.restassured.path.json.config.JsonPathConfig;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.wiremock.spring.EnableWireMock;
+import org.wiremock.spring.InjectWireMock;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static io.restassured.RestAssured.given;
+import static io.restassured.config.JsonConfig.jsonConfig;
+import static io.restassured.config.RestAssuredConfig.newConfig;
+import static org.hamcrest.Matchers.comparesEqualTo;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasKey;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.nullValue;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "movies.pricing.degraded-mode=LAST_KNOWN_RATE",
+        "hnb.rate.max-staleness=PT1S"
+})
+@ActiveProfiles({"test", "integration"})
+@EnableWireMock
+@Testcontainers
+@Import(ContainersConfig.class)
+@DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_EACH_TEST_METHOD)
+public class DegradedModeIT {
+
+    @LocalServerPort
+    private Integer port;
+
+    @Autowired
+    private MovieRepository movieRepository;
+
+    @InjectWireMock
+    private WireMockServer wireMockServer;
+
+    private Movie movie;
+
+    @BeforeAll
+    public static void setup() {
+        RestAssured.config = newConfig().jsonConfig(jsonConfig().numberReturnType(JsonPathConfig.NumberReturnType.BIG_DECIMAL));
+    }
+
+    @BeforeEach
+    public void setupTest() {
+        wireMockServer.resetMappings();
+        movieRepository.deleteAll();
+
+        movie = new Movie();
+        movie.setCode("1234567890");
+        movie.setName("Movie 1");
+        movie.setPrice(BigDecimal.valueOf(10.1));
+        movie.setIsAvailable(true);
+        movieRepository.save(movie);
+    }
+
+    @Test
+    public void shouldServeEurOnly_whenNoRateWasEverFetched() {
+        given().port(port)
+                .when().accept(ContentType.JSON).get("/movies/" + movie.getId())
+                .then()
+                .assertThat()
+                .statusCode(200)
+                .header(MoviesController.RATE_DATE_HEADER, nullValue())
+                .body("price_eur", comparesEqualTo(movie.getPrice()))
+                .body("$", not(hasKey("price_usd")));
+    }
+
+    @Test
+    public void shouldServeLastKnownRate_whenRateExpiredAndHNBisDown() throws InterruptedException {
+        stubFor(get("/tecajn-eur/v3").willReturn(ok(
+                """
+                        [{"broj_tecajnice":"32","datum_primjene":"2025-02-14","drzava":"SAD","drzava_iso":"USA","kupovni_tecaj":"1,040600","prodajni_tecaj":"1,037400","sifra_valute":"840","srednji_tecaj":"1,039000","valuta":"USD"}]
+                        """)
+                .withHeader("Content-Type", "application/json")));
+        given().port(port)
+                .when().accept(ContentType.JSON).get("/movies")
+                .then()
+                .assertThat()
+                .statusCode(200);
+
+        wireMockServer.resetMappings();
+        Thread.sleep(1_500);
+
+        given().port(port)
+                .when().accept(ContentType.JSON).get("/movies/" + movie.getId())
+                .then()
+                .assertThat()
+                .statusCode(200)
+                .header(MoviesController.RATE_DATE_HEADER, equalTo("2025-02-14"))
+                .header(MoviesController.RATE_AGE_HEADER, not(equalTo("0")))
+                .body("price_usd", comparesEqualTo(movie.getPrice().multiply(BigDecimal.valueOf(1.039000)).setScale(2, RoundingMode.HALF_EVEN)));
+    }
+}
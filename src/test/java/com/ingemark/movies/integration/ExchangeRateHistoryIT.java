@@ -0,0 +1,180 @@
+package com.ingemark.movies.integration;
+
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.ingemark.movies.controller.MoviesController;
+import com.ingemark.movies.integration.configuration.ContainersConfig;
+import com.ingemark.movies.model.ExchangeRate;
+import com.ingemark.movies.model.Movie;
+import com.ingemark.movies.repository.ExchangeRateAliasRepository;
+import com.ingemark.movies.repository.ExchangeRateRepository;
+import com.ingemark.movies.repository.MovieRepository;
+import com.ingemark.movies.service.ExchangeRateProvider;
+import io.restassured.RestAssured;
+import io.restassured.http.ContentType;
+import io.restassured.path.json.config.JsonPathConfig;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.wiremock.spring.EnableWireMock;
+import org.wiremock.spring.InjectWireMock;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Instant;
+import java.time.LocalDate;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static io.restassured.RestAssured.given;
+import static io.restassured.config.JsonConfig.jsonConfig;
+import static io.restassured.config.RestAssuredConfig.newConfig;
+import static org.hamcrest.Matchers.comparesEqualTo;
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles({"test", "integration"})
+@EnableWireMock
+@Testcontainers
+@Import(ContainersConfig.class)
+public class ExchangeRateHistoryIT {
+
+    @LocalServerPort
+    private Integer port;
+
+    @Autowired
+    private MovieRepository movieRepository;
+
+    @Autowired
+    private ExchangeRateRepository exchangeRateRepository;
+
+    @Autowired
+    private ExchangeRateAliasRepository exchangeRateAliasRepository;
+
+    @Autowired
+    private ExchangeRateProvider exchangeRateProvider;
+
+    @InjectWireMock
+    private WireMockServer wireMockServer;
+
+    private Movie movie;
+
+    @BeforeAll
+    public static void setup() {
+        RestAssured.config = newConfig().jsonConfig(jsonConfig().numberReturnType(JsonPathConfig.NumberReturnType.BIG_DECIMAL));
+    }
+
+    @BeforeEach
+    public void setupTest() {
+        wireMockServer.resetAll();
+        exchangeRateRepository.deleteAll();
+        exchangeRateAliasRepository.deleteAll();
+        movieRepository.deleteAll();
+
+        movie = new Movie();
+        movie.setCode("1234567890");
+        movie.setName("Movie 1");
+        movie.setPrice(BigDecimal.valueOf(10.1));
+        movie.setIsAvailable(true);
+        movieRepository.save(movie);
+    }
+
+    @Test
+    public void shouldPriceWithStoredRate_whenDateGiven() {
+        exchangeRateRepository.save(ExchangeRate.builder()
+                .id(new ExchangeRate.Key("USD", LocalDate.parse("2025-01-10")))
+                .rate(new BigDecimal("1.100000"))
+                .fetchedAt(Instant.now())
+                .build());
+
+        given().port(port)
+                .when().accept(ContentType.JSON)
+                .queryParam("date", "2025-01-10")
+                .get("/movies/" + movie.getId())
+                .then()
+                .assertThat()
+                .statusCode(200)
+                .header(MoviesController.RATE_DATE_HEADER, equalTo("2025-01-10"))
+                .body("price_usd", comparesEqualTo(movie.getPrice().multiply(new BigDecimal("1.1")).setScale(2, RoundingMode.HALF_EVEN)));
+
+        wireMockServer.verify(0, anyRequestedFor(anyUrl()));
+    }
+
+    @Test
+    public void shouldFetchAndStoreRate_whenDateNotStored() {
+        stubFor(get("/tecajn-eur/v3?datum-primjene=2025-01-09").willReturn(ok(
+                """
+                        [{"broj_tecajnice":"6","datum_primjene":"2025-01-09","drzava":"SAD","drzava_iso":"USA","kupovni_tecaj":"1,051600","prodajni_tecaj":"1,048400","sifra_valute":"840","srednji_tecaj":"1,050000","valuta":"USD"}]
+                        """)
+                .withHeader("Content-Type", "application/json")));
+
+        for (int i = 0; i < 2; i++) {
+            given().port(port)
+                    .when().accept(ContentType.JSON)
+                    .queryParam("date", "2025-01-09")
+                    .get("/movies/" + movie.getId())
+                    .then()
+                    .assertThat()
+                    .statusCode(200)
+                    .body("price_usd", comparesEqualTo(movie.getPrice().multiply(new BigDecimal("1.05")).setScale(2, RoundingMode.HALF_EVEN)));
+        }
+
+        wireMockServer.verify(1, getRequestedFor(urlPathEqualTo("/tecajn-eur/v3")));
+        assertTrue(exchangeRateRepository.existsById(new ExchangeRate.Key("USD", LocalDate.parse("2025-01-09"))));
+    }
+
+    @Test
+    public void shouldFetchRateOnce_whenDateHasNoRateListOfItsOwn() {
+        stubFor(get("/tecajn-eur/v3?datum-primjene=2025-01-11").willReturn(ok(
+                """
+                        [{"broj_tecajnice":"7","datum_primjene":"2025-01-10","drzava":"SAD","drzava_iso":"USA","kupovni_tecaj":"1,031600","prodajni_tecaj":"1,028400","sifra_valute":"840","srednji_tecaj":"1,030000","valuta":"USD"}]
+                        """)
+                .withHeader("Content-Type", "application/json")));
+
+        for (int i = 0; i < 2; i++) {
+            given().port(port)
+                    .when().accept(ContentType.JSON)
+                    .queryParam("date", "2025-01-11")
+                    .get("/movies/" + movie.getId())
+                    .then()
+                    .assertThat()
+                    .statusCode(200)
+                    .header(MoviesController.RATE_DATE_HEADER, equalTo("2025-01-10"))
+                    .body("price_usd", comparesEqualTo(movie.getPrice().multiply(new BigDecimal("1.03")).setScale(2, RoundingMode.HALF_EVEN)));
+        }
+
+        wireMockServer.verify(1, getRequestedFor(urlPathEqualTo("/tecajn-eur/v3")));
+    }
+
+    @Test
+    public void shouldStoreEveryFetchedRate() {
+        stubFor(get("/tecajn-eur/v3").willReturn(ok(
+                """
+                        [{"broj_tecajnice":"32","datum_primjene":"2025-02-14","drzava":"SAD","drzava_iso":"USA","kupovni_tecaj":"1,040600","prodajni_tecaj":"1,037400","sifra_valute":"840","srednji_tecaj":"1,039000","valuta":"USD"}]
+                        """)
+                .withHeader("Content-Type", "application/json")));
+
+        exchangeRateProvider.scheduledRefresh();
+
+        var stored = exchangeRateRepository.findById(new ExchangeRate.Key("USD", LocalDate.parse("2025-02-14")));
+        assertTrue(stored.isPresent());
+        assertEquals(0, stored.get().getRate().compareTo(new BigDecimal("1.039")));
+    }
+
+    @Test
+    public void shouldRejectFutureDate() {
+        given().port(port)
+                .when().accept(ContentType.JSON)
+                .queryParam("date", LocalDate.now().plusDays(2).toString())
+                .get("/movies/" + movie.getId())
+                .then()
+                .assertThat()
+                .statusCode(400);
+    }
+}
@@ -0,0 +1,259 @@
+package com.ingemark.movies.integration;
+
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.ingemark.movies.integration.configuration.ContainersConfig;
+import com.ingemark.movies.model.Movie;
+import com.ingemark.movies.repository.MovieFilter;
+import com.ingemark.movies.repository.MovieRepository;
+import io.restassured.RestAssured;
+import io.restassured.path.json.config.JsonPathConfig;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.wiremock.spring.EnableWireMock;
+import org.wiremock.spring.InjectWireMock;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static io.restassured.RestAssured.given;
+import static io.restassured.config.JsonConfig.jsonConfig;
+import static io.restassured.config.RestAssuredConfig.newConfig;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.hasSize;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector=com.ingemark.movies.integration.FilterMoviesIT$LastMovieQuery")
+@ActiveProfiles({"test", "integration"})
+@EnableWireMock
+@Testcontainers
+@Import(ContainersConfig.class)
+public class FilterMoviesIT {
+
+    @LocalServerPort
+    private Integer port;
+
+    @Autowired
+    private MovieRepository movieRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @InjectWireMock
+    private WireMockServer wireMockServer;
+
+    @BeforeAll
+    public static void setup() {
+        RestAssured.config = newConfig().jsonConfig(jsonConfig().numberReturnType(JsonPathConfig.NumberReturnType.BIG_DECIMAL));
+    }
+
+    @BeforeEach
+    public void setupTest() {
+        wireMockServer.resetMappings();
+        stubFor(get("/tecajn-eur/v3").willReturn(ok(
+                """
+                        [{"broj_tecajnice":"32","datum_primjene":"2025-02-14","drzava":"SAD","drzava_iso":"USA","kupovni_tecaj":"1,040600","prodajni_tecaj":"1,037400","sifra_valute":"840","srednji_tecaj":"1,039000","valuta":"USD"}]
+                        """)
+                .withHeader("Content-Type", "application/json")));
+        movieRepository.deleteAll();
+
+        saveMovie("AB00000001", "The Matrix", "10.00", true);
+        saveMovie("AB00000002", "The Matrix Reloaded", "15.00", false);
+        saveMovie("CD00000001", "Blade Runner", "20.00", true);
+        saveMovie("CD00000002", "100% Pure_Fun", "25.00", true);
+    }
+
+    @Test
+    public void shouldFilterByAvailability() {
+        given().port(port)
+                .when().accept("application/json")
+                .queryParam("isAvailable", false)
+                .get("/movies")
+                .then().assertThat()
+                .statusCode(200)
+                .body("code", containsInAnyOrder("AB00000002"));
+    }
+
+    @Test
+    public void shouldFilterByPriceRange() {
+        given().port(port)
+                .when().accept("application/json")
+                .queryParam("minPrice", "12.5")
+                .queryParam("maxPrice", "20")
+                .get("/movies")
+                .then().assertThat()
+                .statusCode(200)
+                .body("code", containsInAnyOrder("AB00000002", "CD00000001"));
+    }
+
+    @Test
+    public void shouldFilterByCodePrefix() {
+        given().port(port)
+                .when().accept("application/json")
+                .queryParam("codePrefix", "AB")
+                .get("/movies")
+                .then().assertThat()
+                .statusCode(200)
+                .body("code", containsInAnyOrder("AB00000001", "AB00000002"));
+    }
+
+    @Test
+    public void shouldSearchNameCaseInsensitively() {
+        given().port(port)
+                .when().accept("application/json")
+                .queryParam("name", "matrix")
+                .queryParam("isAvailable", true)
+                .get("/movies")
+                .then().assertThat()
+                .statusCode(200)
+                .body("code", containsInAnyOrder("AB00000001"));
+    }
+
+    @Test
+    public void shouldMatchWildcardsLiterally() {
+        given().port(port)
+                .when().accept("application/json")
+                .queryParam("name", "0% pure_")
+                .get("/movies")
+                .then().assertThat()
+                .statusCode(200)
+                .body("code", containsInAnyOrder("CD00000002"));
+
+        given().port(port)
+                .when().accept("application/json")
+                .queryParam("name", "_")
+                .get("/movies")
+                .then().assertThat()
+                .statusCode(200)
+                .body("code", containsInAnyOrder("CD00000002"));
+    }
+
+    @Test
+    public void shouldPaginateFilteredMovies() {
+        var firstPage = given().port(port)
+                .when().accept("application/json")
+                .queryParam("isAvailable", true)
+                .queryParam("limit", 2)
+                .get("/movies")
+                .then().assertThat()
+                .statusCode(200)
+                .body("$", hasSize(2))
+                .extract();
+
+        given().port(port)
+                .when().accept("application/json")
+                .queryParam("isAvailable", true)
+                .queryParam("limit", 2)
+                .queryParam("cursor", firstPage.header("X-Next-Cursor"))
+                .get("/movies")
+                .then().assertThat()
+                .statusCode(200)
+                .body("$", hasSize(1));
+    }
+
+    @Test
+    public void shouldReturnBadRequest_whenFilterMalformed() {
+        given().port(port)
+                .when().accept("application/json")
+                .queryParam("minPrice", "cheap")
+                .get("/movies")
+                .then().assertThat()
+                .statusCode(400);
+    }
+
+    @Test
+    public void shouldUsePartialIndex_whenFilteringAvailableMovies() {
+        var plan = explain(new MovieFilter(true, null, null, null, null), 100, true, 100);
+
+        assertTrue(plan.contains("idx_movie_available"), plan);
+    }
+
+    @Test
+    public void shouldUsePriceIndex_whenFilteringByPriceRange() {
+        var plan = explain(new MovieFilter(null, new BigDecimal("10.00"), new BigDecimal("10.50"), null, null), null,
+                new BigDecimal("10.00"), new BigDecimal("10.50"));
+
+        assertTrue(plan.contains("idx_movie_price"), plan);
+    }
+
+    @Test
+    public void shouldUsePatternIndex_whenFilteringByCodePrefix() {
+        var plan = explain(new MovieFilter(null, null, null, "000001234", null), null, "000001234%");
+
+        assertTrue(plan.contains("idx_movie_code_pattern"), plan);
+    }
+
+    @Test
+    public void shouldUseTrigramIndex_whenSearchingByName() {
+        var plan = explain(new MovieFilter(null, null, null, null, "c4ca4238a0"), null, "%c4ca4238a0%");
+
+        assertTrue(plan.contains("idx_movie_name_trgm"), plan);
+    }
+
+    /**
+     * Plans the statement {@link MovieRepository#findRows} issues for {@code filter}, with {@code binds} as its
+     * parameters, against 200k generated movies, 0.1% of them available, with fresh statistics and default planner
+     * settings. Everything runs in a transaction that is rolled back, so neither the rows nor the statistics outlive
+     * the test.
+     */
+    private String explain(MovieFilter filter, Integer limit, Object... binds) {
+        return transactionTemplate.execute(status -> {
+            status.setRollbackOnly();
+            jdbcTemplate.update("""
+                    INSERT INTO movie (id, code, name, price, is_available)
+                    SELECT gen_random_uuid(), lpad(i::text, 10, '0'), 'Movie ' || md5(i::text), i / 100.0, i % 1000 = 0
+                    FROM generate_series(1, 200000) i
+                    """);
+            jdbcTemplate.execute("ANALYZE movie");
+
+            LastMovieQuery.SQL.set(null);
+            movieRepository.findRows(filter, null, limit);
+            var sql = LastMovieQuery.SQL.get();
+            assertEquals(binds.length, sql.chars().filter(it -> it == '?').count(), sql);
+
+            List<String> lines = jdbcTemplate.queryForList("EXPLAIN " + sql, String.class, binds);
+            return String.join("\n", lines);
+        });
+    }
+
+    /**
+     * Remembers the last query Hibernate sends for {@code movie}, so the tests plan exactly that statement.
+     */
+    public static class LastMovieQuery implements StatementInspector {
+
+        static final AtomicReference<String> SQL = new AtomicReference<>();
+
+        @Override
+        public String inspect(String sql) {
+            if (sql.startsWith("select") && sql.contains(" from movie ")) {
+                SQL.set(sql);
+            }
+            return sql;
+        }
+    }
+
+    private void saveMovie(String code, String name, String price, boolean isAvailable) {
+        var movie = new Movie();
+        movie.setCode(code);
+        movie.setName(name);
+        movie.setPrice(new BigDecimal(price));
+        movie.setIsAvailable(isAvailable);
+        movieRepository.save(movie);
+    }
+}
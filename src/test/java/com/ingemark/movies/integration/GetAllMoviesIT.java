@@ -1,6 +1,7 @@
 package com.ingemark.movies.integration;
 
 import com.github.tomakehurst.wiremock.WireMockServer;
+import com.ingemark.movies.controller.MoviesController;
 import com.ingemark.movies.integration.configuration.ContainersConfig;
 import com.ingemark.movies.model.Movie;
 import com.ingemark.movies.model.dto.MovieDto;
@@ -14,18 +15,29 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.web.server.LocalServerPort;
 import org.springframework.context.annotation.Import;
+import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.test.context.ActiveProfiles;
 import org.testcontainers.junit.jupiter.Testcontainers;
 import org.wiremock.spring.EnableWireMock;
 import org.wiremock.spring.InjectWireMock;
 
 import java.math.BigDecimal;
+import java.math.RoundingMode;
 import java.util.Arrays;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 import static com.github.tomakehurst.wiremock.client.WireMock.*;
 import static io.restassured.RestAssured.given;
 import static io.restassured.config.JsonConfig.jsonConfig;
 import static io.restassured.config.RestAssuredConfig.newConfig;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.emptyString;
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.jupiter.api.Assertions.*;
 
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
 @ActiveProfiles({"test", "integration"})
@@ -51,7 +63,7 @@ public class GetAllMoviesIT {
     @BeforeEach
     public void setupTest() {
         wireMockServer.resetMappings();
-        stubFor(get("/tecajn-eur/v3?valuta=USD").willReturn(ok(
+        stubFor(get("/tecajn-eur/v3").willReturn(ok(
                 """
                         [{"broj_tecajnice":"32","datum_primjene":"2025-02-14","drzava":"SAD","drzava_iso":"USA","kupovni_tecaj":"1,040600","prodajni_tecaj":"1,037400","sifra_valute":"840","srednji_tecaj":"1,039000","valuta":"USD"}]
                         """)
@@ -97,12 +109,202 @@ public class GetAllMoviesIT {
                             movieDto.getIsAvailable().equals(movie.getIsAvailable()) &&
                             movieDto.getName().equals(movie.getName()) &&
                             movieDto.getPriceEur().equals(movie.getPrice()) &&
-                            movieDto.getPriceUsd().compareTo(movie.getPrice().multiply(BigDecimal.valueOf(1.039000))) == 0
+                            movieDto.getPriceUsd().compareTo(movie.getPrice().multiply(BigDecimal.valueOf(1.039000)).setScale(2, RoundingMode.HALF_EVEN)) == 0
                     );
                 });
     }
 
     @Test
+    public void shouldPaginateWithCursor() {
+        saveMovies(3);
+
+        var firstPage = given().port(port)
+                .when().accept("application/json")
+                .queryParam("limit", 2)
+                .get("/movies");
+        var cursor = firstPage.getHeader(MoviesController.NEXT_CURSOR_HEADER);
+        var secondPage = given().port(port)
+                .when().accept("application/json")
+                .queryParam("limit", 2)
+                .queryParam("cursor", cursor)
+                .get("/movies");
+
+        assertEquals(2, firstPage.getBody().as(MovieDto[].class).length);
+        assertNotNull(cursor);
+        assertEquals(1, secondPage.getBody().as(MovieDto[].class).length);
+        assertNull(secondPage.getHeader(MoviesController.NEXT_CURSOR_HEADER));
+
+        var pagedIds = Stream.concat(Arrays.stream(firstPage.getBody().as(MovieDto[].class)),
+                        Arrays.stream(secondPage.getBody().as(MovieDto[].class)))
+                .map(MovieDto::getId)
+                .collect(Collectors.toSet());
+        assertEquals(movieRepository.findAll().stream().map(Movie::getId).collect(Collectors.toSet()), pagedIds);
+    }
+
+    @Test
+    public void shouldReturnBadRequest_whenCursorInvalid() {
+        given().port(port)
+                .when().accept("application/json")
+                .queryParam("cursor", "not-a-cursor")
+                .get("/movies")
+                .then().assertThat()
+                .statusCode(400);
+    }
+
+    @Test
+    public void shouldStreamAllMoviesAsNdjson() {
+        saveMovies(3);
+
+        var lines = given().port(port)
+                .when().accept("application/x-ndjson")
+                .get("/movies/stream")
+                .then().assertThat()
+                .statusCode(200)
+                .extract().asString()
+                .lines()
+                .filter(line -> !line.isBlank())
+                .toList();
+
+        assertEquals(3, lines.size());
+    }
+
+    @Test
+    public void shouldGzipLargeListings() {
+        saveMovies(50);
+
+        var movies = given().port(port)
+                .when().accept("application/json")
+                .header("Accept-Encoding", "gzip")
+                .get("/movies")
+                .then().assertThat()
+                .statusCode(200)
+                .header("Content-Encoding", equalTo("gzip"))
+                .extract().as(MovieDto[].class);
+
+        assertEquals(50, movies.length);
+    }
+
+    @Test
+    public void shouldReturnNotModified_untilCatalogueChanges() {
+        saveMovies(2);
+
+        var etag = given().port(port)
+                .when().accept("application/json")
+                .get("/movies")
+                .then().assertThat()
+                .statusCode(200)
+                .header("Cache-Control", containsString("max-age"))
+                .extract().header("ETag");
+        assertNotNull(etag);
+
+        given().port(port)
+                .when().accept("application/json")
+                .header("If-None-Match", etag)
+                .get("/movies")
+                .then().assertThat()
+                .statusCode(304)
+                .header("ETag", equalTo(etag))
+                .body(emptyString());
+
+        given().port(port)
+                .body(MovieDto.builder()
+                        .code("1234567899")
+                        .name("Movie 9")
+                        .isAvailable(true)
+                        .priceEur(new BigDecimal("9.9"))
+                        .build())
+                .contentType("application/json")
+                .when().accept("application/json")
+                .post("/movies")
+                .then().assertThat()
+                .statusCode(201);
+
+        var changed = given().port(port)
+                .when().accept("application/json")
+                .header("If-None-Match", etag)
+                .get("/movies")
+                .then().assertThat()
+                .statusCode(200)
+                .extract().header("ETag");
+        assertNotEquals(etag, changed);
+    }
+
+    @Test
+    public void shouldBumpCatalogueVersion_onEveryWrite() {
+        var before = catalogueVersion();
+
+        given().port(port)
+                .body(MovieDto.builder()
+                        .code("1234567899")
+                        .name("Movie 9")
+                        .isAvailable(true)
+                        .priceEur(new BigDecimal("9.9"))
+                        .build())
+                .contentType("application/json")
+                .when().accept("application/json")
+                .post("/movies")
+                .then().assertThat()
+                .statusCode(201);
+        given().port(port)
+                .body("""
+                        [{"code":"1234567898","name":"Movie 8","price_eur":8.8,"is_available":true}]
+                        """)
+                .contentType("application/json")
+                .when().accept("application/json")
+                .post("/movies/bulk")
+                .then().assertThat()
+                .statusCode(200);
+
+        assertEquals(before + 2, catalogueVersion());
+    }
+
+    @Test
+    @DirtiesContext(methodMode = DirtiesContext.MethodMode.BEFORE_METHOD)
+    public void shouldFetchRateOnce_whenRequestedConcurrently() throws Exception {
+        wireMockServer.resetMappings();
+        wireMockServer.resetRequests();
+        stubFor(get("/tecajn-eur/v3").willReturn(ok(
+                """
+                        [{"broj_tecajnice":"32","datum_primjene":"2025-02-14","drzava":"SAD","drzava_iso":"USA","kupovni_tecaj":"1,040600","prodajni_tecaj":"1,037400","sifra_valute":"840","srednji_tecaj":"1,039000","valuta":"USD"}]
+                        """)
+                .withHeader("Content-Type", "application/json")
+                .withFixedDelay(500)));
+
+        var parallelRequests = 50;
+        Callable<Integer> request = () -> given().port(port)
+                .when().accept("application/json")
+                .get("/movies")
+                .getStatusCode();
+
+        try (var executor = Executors.newFixedThreadPool(parallelRequests)) {
+            var statuses = executor.invokeAll(IntStream.range(0, parallelRequests).mapToObj(i -> request).toList());
+            for (var status : statuses) {
+                assertEquals(200, status.get());
+            }
+        }
+
+        wireMockServer.verify(1, getRequestedFor(urlEqualTo("/tecajn-eur/v3")));
+    }
+
+    @Test
+    public void shouldServeLastKnownRate_whenHNBisDown() {
+        given().port(port)
+                .when().accept("application/json")
+                .get("/movies")
+                .then().assertThat()
+                .statusCode(200);
+
+        wireMockServer.resetMappings();
+
+        given().port(port)
+                .when().accept("application/json")
+                .get("/movies")
+                .then().assertThat()
+                .statusCode(200);
+    }
+
+    @Test
+    @DirtiesContext(methodMode = DirtiesContext.MethodMode.BEFORE_METHOD)
     public void shouldReturn500_whenHNBisDown() {
         wireMockServer.resetMappings();
 
@@ -120,4 +322,23 @@ public class GetAllMoviesIT {
                 .statusCode(500);
     }
 
+    private long catalogueVersion() {
+        return given().port(port)
+                .when().accept("application/json")
+                .get("/movies/version")
+                .then().assertThat()
+                .statusCode(200)
+                .extract().jsonPath().getLong("version");
+    }
+
+    private void saveMovies(int count) {
+        for (int i = 0; i < count; i++) {
+            var movie = new Movie();
+            movie.setCode("%010d".formatted(i));
+            movie.setName("Movie " + i);
+            movie.setPrice(BigDecimal.valueOf(10.1 + i));
+            movie.setIsAvailable(true);
+            movieRepository.save(movie);
+        }
+    }
 }
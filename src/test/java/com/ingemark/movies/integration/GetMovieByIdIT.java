@@ -5,6 +5,7 @@ import com.ingemark.movies.integration.configuration.ContainersConfig;
 import com.ingemark.movies.model.Movie;
 import com.ingemark.movies.model.dto.MovieDto;
 import com.ingemark.movies.repository.MovieRepository;
+import com.ingemark.movies.service.MovieCache;
 import io.restassured.RestAssured;
 import io.restassured.http.ContentType;
 import io.restassured.path.json.config.JsonPathConfig;
@@ -15,20 +16,28 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.web.server.LocalServerPort;
 import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.test.context.ActiveProfiles;
 import org.testcontainers.junit.jupiter.Testcontainers;
 import org.wiremock.spring.EnableWireMock;
 import org.wiremock.spring.InjectWireMock;
 
 import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Duration;
+import java.util.Optional;
 import java.util.UUID;
 
 import static com.github.tomakehurst.wiremock.client.WireMock.*;
 import static io.restassured.RestAssured.given;
 import static io.restassured.config.JsonConfig.jsonConfig;
 import static io.restassured.config.RestAssuredConfig.newConfig;
+import static org.awaitility.Awaitility.await;
 import static org.hamcrest.Matchers.comparesEqualTo;
 import static org.hamcrest.Matchers.equalTo;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.fail;
 
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
 @ActiveProfiles({"test", "integration"})
@@ -43,6 +52,12 @@ public class GetMovieByIdIT {
     @Autowired
     private MovieRepository movieRepository;
 
+    @Autowired
+    private MovieCache movieCache;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
     @InjectWireMock
     private WireMockServer wireMockServer;
 
@@ -54,12 +69,13 @@ public class GetMovieByIdIT {
     @BeforeEach
     public void setupTest() {
         wireMockServer.resetMappings();
-        stubFor(get("/tecajn-eur/v3?valuta=USD").willReturn(ok(
+        stubFor(get("/tecajn-eur/v3").willReturn(ok(
                 """
                         [{"broj_tecajnice":"32","datum_primjene":"2025-02-14","drzava":"SAD","drzava_iso":"USA","kupovni_tecaj":"1,040600","prodajni_tecaj":"1,037400","sifra_valute":"840","srednji_tecaj":"1,039000","valuta":"USD"}]
                         """)
                 .withHeader("Content-Type", "application/json")));
         movieRepository.deleteAll();
+        movieCache.evictAll();
     }
 
     @Test
@@ -81,7 +97,139 @@ public class GetMovieByIdIT {
                 .body("code", equalTo(movie.getCode()))
                 .body("name", equalTo(movie.getName()))
                 .body("price_eur", comparesEqualTo(movie.getPrice()))
-                .body("price_usd", comparesEqualTo(movie.getPrice().multiply(BigDecimal.valueOf(1.039000))));
+                .body("price_usd", comparesEqualTo(movie.getPrice().multiply(BigDecimal.valueOf(1.039000)).setScale(2, RoundingMode.HALF_EVEN)));
+    }
+
+    @Test
+    public void shouldFindMovieByCode() {
+        var movie = new Movie();
+        movie.setCode("1234567890");
+        movie.setName("Movie 1");
+        movie.setPrice(BigDecimal.valueOf(10.1));
+        movie.setIsAvailable(true);
+
+        movieRepository.save(movie);
+
+        given().port(port)
+                .when().accept(ContentType.JSON).get("/movies/by-code/" + movie.getCode())
+                .then()
+                .assertThat()
+                .statusCode(200)
+                .body("id", equalTo(movie.getId().toString()))
+                .body("price_usd", comparesEqualTo(movie.getPrice().multiply(BigDecimal.valueOf(1.039000)).setScale(2, RoundingMode.HALF_EVEN)));
+    }
+
+    @Test
+    public void shouldServeCachedMovie_afterFirstRead() {
+        var movie = new Movie();
+        movie.setCode("1234567890");
+        movie.setName("Movie 1");
+        movie.setPrice(BigDecimal.valueOf(10.1));
+        movie.setIsAvailable(true);
+
+        movieRepository.save(movie);
+
+        given().port(port)
+                .when().accept(ContentType.JSON).get("/movies/" + movie.getId())
+                .then()
+                .assertThat()
+                .statusCode(200);
+
+        var cached = movieCache.getById(movie.getId(), id -> fail("Movie " + id + " should have been cached"));
+        assertEquals(movie.getCode(), cached.orElseThrow().getCode());
+    }
+
+    @Test
+    public void shouldEvictCachedMovie_whenChangedElsewhere() {
+        var movie = new Movie();
+        movie.setCode("1234567890");
+        movie.setName("Movie 1");
+        movie.setPrice(BigDecimal.valueOf(10.1));
+        movie.setIsAvailable(true);
+
+        movieRepository.save(movie);
+
+        given().port(port)
+                .when().accept(ContentType.JSON).get("/movies/" + movie.getId())
+                .then()
+                .assertThat()
+                .statusCode(200)
+                .body("name", equalTo("Movie 1"));
+
+        jdbcTemplate.update("UPDATE movie SET name = 'Movie 1 (restored)', version = version + 1 WHERE id = ?", movie.getId());
+
+        await().atMost(Duration.ofSeconds(5)).untilAsserted(() -> given().port(port)
+                .when().accept(ContentType.JSON).get("/movies/" + movie.getId())
+                .then()
+                .assertThat()
+                .statusCode(200)
+                .body("name", equalTo("Movie 1 (restored)")));
+
+        jdbcTemplate.update("DELETE FROM movie WHERE id = ?", movie.getId());
+
+        await().atMost(Duration.ofSeconds(5)).untilAsserted(() -> given().port(port)
+                .when().accept(ContentType.JSON).get("/movies/by-code/" + movie.getCode())
+                .then()
+                .assertThat()
+                .statusCode(404));
+    }
+
+    @Test
+    public void shouldClearCache_whenChangeSubscriptionReconnects() {
+        var movie = new Movie();
+        movie.setCode("1234567890");
+        movie.setName("Movie 1");
+        movie.setPrice(BigDecimal.valueOf(10.1));
+        movie.setIsAvailable(true);
+
+        movieRepository.save(movie);
+
+        given().port(port)
+                .when().accept(ContentType.JSON).get("/movies/" + movie.getId())
+                .then()
+                .assertThat()
+                .statusCode(200);
+
+        jdbcTemplate.queryForList("SELECT pg_terminate_backend(pid) FROM pg_stat_activity WHERE application_name = 'movies-change-listener'");
+
+        await().atMost(Duration.ofSeconds(10)).until(() ->
+                movieCache.getById(movie.getId(), id -> Optional.empty()).isEmpty());
+    }
+
+    @Test
+    public void shouldReturnNotModified_whenETagMatches() {
+        var movie = new Movie();
+        movie.setCode("1234567890");
+        movie.setName("Movie 1");
+        movie.setPrice(BigDecimal.valueOf(10.1));
+        movie.setIsAvailable(true);
+
+        movieRepository.save(movie);
+
+        var etag = given().port(port)
+                .when().accept(ContentType.JSON).get("/movies/" + movie.getId())
+                .then()
+                .assertThat()
+                .statusCode(200)
+                .extract().header("ETag");
+
+        given().port(port)
+                .when().accept(ContentType.JSON)
+                .header("If-None-Match", etag)
+                .get("/movies/" + movie.getId())
+                .then()
+                .assertThat()
+                .statusCode(304)
+                .header("ETag", equalTo(etag));
+
+        given().port(port)
+                .when().accept(ContentType.JSON)
+                .header("If-None-Match", "\"stale\"")
+                .get("/movies/" + movie.getId())
+                .then()
+                .assertThat()
+                .statusCode(200)
+                .body("code", equalTo(movie.getCode()));
     }
 
     @Test
@@ -105,6 +253,7 @@ public class GetMovieByIdIT {
     }
 
     @Test
+    @DirtiesContext(methodMode = DirtiesContext.MethodMode.BEFORE_METHOD)
     public void shouldReturn500_whenHNBisDown() {
         wireMockServer.resetMappings();
 
@@ -0,0 +1,109 @@
+package com.ingemark.movies.integration;
+
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.http.Fault;
+import com.ingemark.movies.integration.configuration.ContainersConfig;
+import com.ingemark.movies.service.HnbClient;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.wiremock.spring.EnableWireMock;
+import org.wiremock.spring.InjectWireMock;
+
+import java.time.Duration;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.Matchers.hasItem;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "hnb.client.read-timeout=PT0.5S",
+        "resilience4j.retry.instances.hnb.max-attempts=2",
+        "resilience4j.retry.instances.hnb.wait-duration=50ms",
+        "resilience4j.circuitbreaker.instances.hnb.minimum-number-of-calls=4",
+        "resilience4j.circuitbreaker.instances.hnb.sliding-window-size=4"
+})
+@ActiveProfiles({"test", "integration"})
+@EnableWireMock
+@Testcontainers
+@Import(ContainersConfig.class)
+public class HnbResilienceIT {
+
+    @LocalServerPort
+    private Integer port;
+
+    @Autowired
+    private CircuitBreakerRegistry circuitBreakerRegistry;
+
+    @InjectWireMock
+    private WireMockServer wireMockServer;
+
+    private CircuitBreaker circuitBreaker;
+
+    @BeforeEach
+    public void setupTest() {
+        wireMockServer.resetAll();
+        circuitBreaker = circuitBreakerRegistry.circuitBreaker(HnbClient.RESILIENCE_INSTANCE);
+        circuitBreaker.reset();
+    }
+
+    @Test
+    public void shouldBoundLatency_whenHNBisSlow() {
+        stubFor(get("/tecajn-eur/v3").willReturn(ok("[]").withFixedDelay(10_000)));
+
+        var started = System.nanoTime();
+        given().port(port)
+                .when().accept("application/json")
+                .get("/movies")
+                .then().assertThat()
+                .statusCode(500);
+
+        var elapsed = Duration.ofNanos(System.nanoTime() - started);
+        assertTrue(elapsed.compareTo(Duration.ofSeconds(3)) < 0, "Request took " + elapsed);
+    }
+
+    @Test
+    public void shouldOpenCircuitAndFailFast_whenHNBkeepsFailing() {
+        stubFor(get("/tecajn-eur/v3").willReturn(aResponse().withFault(Fault.CONNECTION_RESET_BY_PEER)));
+
+        for (int i = 0; i < 4; i++) {
+            given().port(port)
+                    .when().accept("application/json")
+                    .get("/movies")
+                    .then().assertThat()
+                    .statusCode(500);
+        }
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState());
+
+        wireMockServer.resetRequests();
+        var started = System.nanoTime();
+        given().port(port)
+                .when().accept("application/json")
+                .get("/movies")
+                .then().assertThat()
+                .statusCode(500);
+
+        var elapsed = Duration.ofNanos(System.nanoTime() - started);
+        assertTrue(elapsed.compareTo(Duration.ofMillis(500)) < 0, "Request took " + elapsed);
+        wireMockServer.verify(0, getRequestedFor(urlPathEqualTo("/tecajn-eur/v3")));
+    }
+
+    @Test
+    public void shouldExposeBreakerStateThroughActuator() {
+        given().port(port)
+                .when().accept("application/json")
+                .get("/actuator/circuitbreakers")
+                .then().assertThat()
+                .statusCode(200)
+                .body("circuitBreakers.keySet()", hasItem(HnbClient.RESILIENCE_INSTANCE));
+    }
+}
@@ -0,0 +1,138 @@
+package com.ingemark.movies.integration;
+
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.ingemark.movies.integration.configuration.ContainersConfig;
+import com.ingemark.movies.model.Movie;
+import com.ingemark.movies.repository.MovieRepository;
+import com.ingemark.movies.service.ExchangeRateProvider;
+import io.restassured.RestAssured;
+import io.restassured.path.json.config.JsonPathConfig;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.wiremock.spring.EnableWireMock;
+import org.wiremock.spring.InjectWireMock;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static io.restassured.RestAssured.given;
+import static io.restassured.config.JsonConfig.jsonConfig;
+import static io.restassured.config.RestAssuredConfig.newConfig;
+import static org.hamcrest.Matchers.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles({"test", "integration"})
+@EnableWireMock
+@Testcontainers
+@Import(ContainersConfig.class)
+public class LookupMoviesIT {
+
+    @LocalServerPort
+    private Integer port;
+
+    @Autowired
+    private MovieRepository movieRepository;
+
+    @Autowired
+    private ExchangeRateProvider exchangeRateProvider;
+
+    @InjectWireMock
+    private WireMockServer wireMockServer;
+
+    private List<Movie> movies;
+
+    @BeforeAll
+    public static void setup() {
+        RestAssured.config = newConfig().jsonConfig(jsonConfig().numberReturnType(JsonPathConfig.NumberReturnType.BIG_DECIMAL));
+    }
+
+    @BeforeEach
+    public void setupTest() {
+        wireMockServer.resetAll();
+        stubFor(get("/tecajn-eur/v3").willReturn(ok(
+                """
+                        [{"broj_tecajnice":"32","datum_primjene":"2025-02-14","drzava":"SAD","drzava_iso":"USA","kupovni_tecaj":"1,040600","prodajni_tecaj":"1,037400","sifra_valute":"840","srednji_tecaj":"1,039000","valuta":"USD"}]
+                        """)
+                .withHeader("Content-Type", "application/json")));
+        exchangeRateProvider.scheduledRefresh();
+        movieRepository.deleteAll();
+
+        movies = IntStream.range(0, 3)
+                .mapToObj(i -> {
+                    var movie = new Movie();
+                    movie.setCode("%010d".formatted(i));
+                    movie.setName("Movie " + i);
+                    movie.setPrice(BigDecimal.valueOf(10 + i));
+                    movie.setIsAvailable(true);
+                    return movieRepository.save(movie);
+                })
+                .toList();
+    }
+
+    @Test
+    public void shouldLookUpByIdsAndCodes_andReportMissingKeys() {
+        var unknownId = UUID.randomUUID();
+
+        given().port(port)
+                .body(Map.of(
+                        "ids", List.of(movies.get(0).getId(), unknownId, movies.get(1).getId()),
+                        "codes", List.of(movies.get(1).getCode(), movies.get(2).getCode(), "9999999999")))
+                .contentType("application/json")
+                .when().accept("application/json")
+                .post("/movies/lookup")
+                .then().assertThat()
+                .statusCode(200)
+                .body("movies.id", contains(movies.get(0).getId().toString(), movies.get(1).getId().toString(), movies.get(2).getId().toString()))
+                .body("movies[2].price_usd", comparesEqualTo(movies.get(2).getPrice().multiply(new BigDecimal("1.039")).setScale(2, RoundingMode.HALF_EVEN)))
+                .body("missing_ids", contains(unknownId.toString()))
+                .body("missing_codes", contains("9999999999"));
+
+        wireMockServer.verify(1, getRequestedFor(urlPathEqualTo("/tecajn-eur/v3")));
+    }
+
+    @Test
+    public void shouldReturnBadRequest_whenTooManyKeys() {
+        given().port(port)
+                .body(Map.of("codes", IntStream.range(0, 501).mapToObj("%010d"::formatted).toList()))
+                .contentType("application/json")
+                .when().accept("application/json")
+                .post("/movies/lookup")
+                .then().assertThat()
+                .statusCode(400);
+    }
+
+    @Test
+    public void shouldReturnBadRequest_whenKeyIsNull() {
+        given().port(port)
+                .body("""
+                        {"ids": [null], "codes": ["0000000001"]}
+                        """)
+                .contentType("application/json")
+                .when().accept("application/json")
+                .post("/movies/lookup")
+                .then().assertThat()
+                .statusCode(400);
+
+        given().port(port)
+                .body("""
+                        {"codes": ["0000000001", null]}
+                        """)
+                .contentType("application/json")
+                .when().accept("application/json")
+                .post("/movies/lookup")
+                .then().assertThat()
+                .statusCode(400);
+    }
+}
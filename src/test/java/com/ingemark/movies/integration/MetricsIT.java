@@ -0,0 +1,109 @@
+package com.ingemark.movies.integration;
+
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.ingemark.movies.integration.configuration.ContainersConfig;
+import com.ingemark.movies.model.Movie;
+import com.ingemark.movies.repository.MovieRepository;
+import com.ingemark.movies.service.ExchangeRateProvider;
+import com.ingemark.movies.service.MovieCache;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.wiremock.spring.EnableWireMock;
+import org.wiremock.spring.InjectWireMock;
+
+import java.math.BigDecimal;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.Matchers.allOf;
+import static org.hamcrest.Matchers.containsString;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles({"test", "integration"})
+@EnableWireMock
+@Testcontainers
+@Import(ContainersConfig.class)
+@AutoConfigureObservability
+public class MetricsIT {
+
+    @LocalServerPort
+    private Integer port;
+
+    @Autowired
+    private MovieRepository movieRepository;
+
+    @Autowired
+    private ExchangeRateProvider exchangeRateProvider;
+
+    @Autowired
+    private MovieCache movieCache;
+
+    @InjectWireMock
+    private WireMockServer wireMockServer;
+
+    private Movie movie;
+
+    @BeforeEach
+    public void setupTest() {
+        wireMockServer.resetAll();
+        stubFor(get("/tecajn-eur/v3").willReturn(ok(
+                """
+                        [{"broj_tecajnice":"32","datum_primjene":"2025-02-14","drzava":"SAD","drzava_iso":"USA","kupovni_tecaj":"1,040600","prodajni_tecaj":"1,037400","sifra_valute":"840","srednji_tecaj":"1,039000","valuta":"USD"}]
+                        """)
+                .withHeader("Content-Type", "application/json")));
+        exchangeRateProvider.scheduledRefresh();
+        movieRepository.deleteAll();
+        movieCache.evictAll();
+
+        movie = new Movie();
+        movie.setCode("1234567890");
+        movie.setName("Movie 1");
+        movie.setPrice(BigDecimal.valueOf(10.1));
+        movie.setIsAvailable(true);
+        movieRepository.save(movie);
+    }
+
+    @Test
+    public void shouldExportHotPathMetricsToPrometheus() {
+        given().port(port)
+                .when().accept("application/json")
+                .get("/movies/" + movie.getId())
+                .then().assertThat()
+                .statusCode(200);
+
+        given().port(port)
+                .when().accept("text/plain")
+                .get("/actuator/prometheus")
+                .then().assertThat()
+                .statusCode(200)
+                .body(allOf(
+                        containsString("http_server_requests_seconds_bucket{application=\"Movies\""),
+                        containsString("uri=\"/movies/{movieId}\""),
+                        containsString("http_server_response_size_bytes_count{"),
+                        containsString("hnb_fetch_seconds_count{application=\"Movies\",kind=\"current\",outcome=\"SUCCESS\"}"),
+                        containsString("spring_data_repository_invocations_seconds_bucket{"),
+                        containsString("hikaricp_connections_acquire_seconds_bucket{")));
+    }
+
+    @Test
+    public void shouldCountFailedHnbFetches() {
+        wireMockServer.resetMappings();
+        stubFor(get("/tecajn-eur/v3").willReturn(serverError()));
+
+        exchangeRateProvider.scheduledRefresh();
+
+        given().port(port)
+                .when().accept("text/plain")
+                .get("/actuator/prometheus")
+                .then().assertThat()
+                .statusCode(200)
+                .body(containsString("hnb_fetch_seconds_count{application=\"Movies\",kind=\"current\",outcome=\"ERROR\"}"));
+    }
+}
@@ -0,0 +1,131 @@
+package com.ingemark.movies.integration;
+
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.ingemark.movies.integration.configuration.ContainersConfig;
+import com.ingemark.movies.model.Movie;
+import com.ingemark.movies.repository.MovieRepository;
+import com.ingemark.movies.service.ExchangeRateProvider;
+import com.ingemark.movies.service.MovieCache;
+import io.restassured.RestAssured;
+import io.restassured.http.ContentType;
+import io.restassured.path.json.config.JsonPathConfig;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.wiremock.spring.EnableWireMock;
+import org.wiremock.spring.InjectWireMock;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static io.restassured.RestAssured.given;
+import static io.restassured.config.JsonConfig.jsonConfig;
+import static io.restassured.config.RestAssuredConfig.newConfig;
+import static org.hamcrest.Matchers.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles({"test", "integration"})
+@EnableWireMock
+@Testcontainers
+@Import(ContainersConfig.class)
+public class MultiCurrencyIT {
+
+    @LocalServerPort
+    private Integer port;
+
+    @Autowired
+    private MovieRepository movieRepository;
+
+    @Autowired
+    private ExchangeRateProvider exchangeRateProvider;
+
+    @Autowired
+    private MovieCache movieCache;
+
+    @InjectWireMock
+    private WireMockServer wireMockServer;
+
+    private Movie movie;
+
+    @BeforeAll
+    public static void setup() {
+        RestAssured.config = newConfig().jsonConfig(jsonConfig().numberReturnType(JsonPathConfig.NumberReturnType.BIG_DECIMAL));
+    }
+
+    @BeforeEach
+    public void setupTest() {
+        wireMockServer.resetAll();
+        stubFor(get("/tecajn-eur/v3").willReturn(ok(
+                """
+                        [{"broj_tecajnice":"32","datum_primjene":"2025-02-14","drzava":"SAD","drzava_iso":"USA","kupovni_tecaj":"1,040600","prodajni_tecaj":"1,037400","sifra_valute":"840","srednji_tecaj":"1,039000","valuta":"USD"},
+                        {"broj_tecajnice":"32","datum_primjene":"2025-02-14","drzava":"Ujedinjeno Kraljevstvo","drzava_iso":"GBR","kupovni_tecaj":"0,831500","prodajni_tecaj":"0,829000","sifra_valute":"826","srednji_tecaj":"0,830250","valuta":"GBP"},
+                        {"broj_tecajnice":"32","datum_primjene":"2025-02-14","drzava":"Japan","drzava_iso":"JPN","kupovni_tecaj":"159,720000","prodajni_tecaj":"159,240000","sifra_valute":"392","srednji_tecaj":"159,480000","valuta":"JPY"}]
+                        """)
+                .withHeader("Content-Type", "application/json")));
+        exchangeRateProvider.scheduledRefresh();
+        movieRepository.deleteAll();
+        movieCache.evictAll();
+
+        movie = new Movie();
+        movie.setCode("1234567890");
+        movie.setName("Movie 1");
+        movie.setPrice(BigDecimal.valueOf(10.1));
+        movie.setIsAvailable(true);
+        movieRepository.save(movie);
+    }
+
+    @Test
+    public void shouldConvertToEveryRequestedCurrency_withSingleUpstreamCall() {
+        given().port(port)
+                .when().accept(ContentType.JSON)
+                .queryParam("currencies", "gbp,JPY")
+                .get("/movies/" + movie.getId())
+                .then()
+                .assertThat()
+                .statusCode(200)
+                .body("price_usd", comparesEqualTo(movie.getPrice().multiply(new BigDecimal("1.039")).setScale(2, RoundingMode.HALF_EVEN)))
+                .body("prices.GBP", comparesEqualTo(movie.getPrice().multiply(new BigDecimal("0.83025")).setScale(2, RoundingMode.HALF_EVEN)))
+                .body("prices.JPY", comparesEqualTo(movie.getPrice().multiply(new BigDecimal("159.48")).setScale(2, RoundingMode.HALF_EVEN)));
+
+        given().port(port)
+                .when().accept(ContentType.JSON)
+                .queryParam("currencies", "GBP")
+                .get("/movies")
+                .then()
+                .assertThat()
+                .statusCode(200)
+                .body("[0].prices.GBP", comparesEqualTo(movie.getPrice().multiply(new BigDecimal("0.83025")).setScale(2, RoundingMode.HALF_EVEN)))
+                .body("[0].prices", not(hasKey("JPY")));
+
+        wireMockServer.verify(1, getRequestedFor(urlPathEqualTo("/tecajn-eur/v3")));
+    }
+
+    @Test
+    public void shouldOmitPrices_whenNoCurrencyRequested() {
+        given().port(port)
+                .when().accept(ContentType.JSON)
+                .get("/movies/" + movie.getId())
+                .then()
+                .assertThat()
+                .statusCode(200)
+                .body("$", not(hasKey("prices")));
+    }
+
+    @Test
+    public void shouldReturnBadRequest_whenCurrencyNotPublished() {
+        given().port(port)
+                .when().accept(ContentType.JSON)
+                .queryParam("currencies", "XYZ")
+                .get("/movies/" + movie.getId())
+                .then()
+                .assertThat()
+                .statusCode(400);
+    }
+}
@@ -1,6 +1,7 @@
 package com.ingemark.movies.integration;
 
 import com.github.tomakehurst.wiremock.WireMockServer;
+import com.ingemark.movies.controller.MoviesController;
 import com.ingemark.movies.integration.configuration.ContainersConfig;
 import com.ingemark.movies.model.Movie;
 import com.ingemark.movies.model.dto.MovieDto;
@@ -17,18 +18,22 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.web.server.LocalServerPort;
 import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.test.context.ActiveProfiles;
 import org.testcontainers.junit.jupiter.Testcontainers;
 import org.wiremock.spring.EnableWireMock;
 import org.wiremock.spring.InjectWireMock;
 
 import java.math.BigDecimal;
+import java.math.RoundingMode;
 
 import static com.github.tomakehurst.wiremock.client.WireMock.*;
 import static io.restassured.RestAssured.given;
 import static io.restassured.config.JsonConfig.jsonConfig;
 import static io.restassured.config.RestAssuredConfig.newConfig;
 import static org.hamcrest.Matchers.comparesEqualTo;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
 @ActiveProfiles({"test", "integration"})
@@ -43,6 +48,9 @@ public class PostMovieIT {
     @Autowired
     private MovieRepository movieRepository;
 
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
     @InjectWireMock
     private WireMockServer wireMockServer;
 
@@ -54,12 +62,13 @@ public class PostMovieIT {
     @BeforeEach
     public void setupTest() {
         wireMockServer.resetMappings();
-        stubFor(get("/tecajn-eur/v3?valuta=USD").willReturn(ok(
+        stubFor(get("/tecajn-eur/v3").willReturn(ok(
                 """
                         [{"broj_tecajnice":"32","datum_primjene":"2025-02-14","drzava":"SAD","drzava_iso":"USA","kupovni_tecaj":"1,040600","prodajni_tecaj":"1,037400","sifra_valute":"840","srednji_tecaj":"1,039000","valuta":"USD"}]
                         """)
                 .withHeader("Content-Type", "application/json")));
         movieRepository.deleteAll();
+        jdbcTemplate.update("DELETE FROM idempotency_key");
     }
 
     @Test
@@ -80,7 +89,7 @@ public class PostMovieIT {
                 .body("name", IsEqual.equalTo("Movie 1"))
                 .body("is_available", IsEqual.equalTo(true))
                 .body("price_eur", comparesEqualTo(BigDecimal.valueOf(12.1)))
-                .body("price_usd", comparesEqualTo(BigDecimal.valueOf(12.1).multiply(BigDecimal.valueOf(1.039000))))
+                .body("price_usd", comparesEqualTo(BigDecimal.valueOf(12.1).multiply(BigDecimal.valueOf(1.039000)).setScale(2, RoundingMode.HALF_EVEN)))
                 .body("id", IsNot.not(IsNull.nullValue()));
     }
 
@@ -130,7 +139,7 @@ public class PostMovieIT {
     }
 
     @Test
-    public void shouldRejectMovie_whenCodeNotUnique() {
+    public void shouldReturnConflict_whenCodeNotUnique() {
         var movie1 = new Movie();
         movie1.setCode("1234567890");
         movie1.setName("Movie 1");
@@ -150,7 +159,90 @@ public class PostMovieIT {
                 .when().accept("application/json")
                 .post("/movies")
                 .then().assertThat()
-                .statusCode(400);
+                .statusCode(409);
+
+        given().port(port)
+                .body(MovieDto.builder()
+                        .name("Movie 1")
+                        .code("1234567890")
+                        .isAvailable(true)
+                        .priceEur(new BigDecimal("12.1"))
+                        .build())
+                .contentType("application/json")
+                .when().accept("application/json")
+                .post("/movies")
+                .then().assertThat()
+                .statusCode(409);
+
+        assertEquals(1, movieRepository.count());
+    }
+
+    @Test
+    public void shouldReplayResponse_whenIdempotencyKeyRepeated() {
+        var movie = MovieDto.builder()
+                .code("1234567890")
+                .name("Movie 1")
+                .isAvailable(true)
+                .priceEur(new BigDecimal("12.1"))
+                .build();
+
+        var id = given().port(port)
+                .body(movie)
+                .contentType("application/json")
+                .header(MoviesController.IDEMPOTENCY_KEY_HEADER, "create-1234567890")
+                .when().accept("application/json")
+                .post("/movies")
+                .then().assertThat()
+                .statusCode(201)
+                .header(MoviesController.IDEMPOTENT_REPLAYED_HEADER, IsNull.nullValue())
+                .extract().path("id");
+
+        given().port(port)
+                .body(movie)
+                .contentType("application/json")
+                .header(MoviesController.IDEMPOTENCY_KEY_HEADER, "create-1234567890")
+                .when().accept("application/json")
+                .post("/movies")
+                .then().assertThat()
+                .statusCode(201)
+                .header(MoviesController.IDEMPOTENT_REPLAYED_HEADER, IsEqual.equalTo("true"))
+                .body("id", IsEqual.equalTo(id))
+                .body("price_usd", comparesEqualTo(BigDecimal.valueOf(12.1).multiply(BigDecimal.valueOf(1.039000)).setScale(2, RoundingMode.HALF_EVEN)));
+
+        assertEquals(1, movieRepository.count());
+    }
+
+    @Test
+    public void shouldRejectIdempotencyKey_whenReusedForDifferentRequest() {
+        given().port(port)
+                .body(MovieDto.builder()
+                        .code("1234567890")
+                        .name("Movie 1")
+                        .isAvailable(true)
+                        .priceEur(new BigDecimal("12.1"))
+                        .build())
+                .contentType("application/json")
+                .header(MoviesController.IDEMPOTENCY_KEY_HEADER, "reused-key")
+                .when().accept("application/json")
+                .post("/movies")
+                .then().assertThat()
+                .statusCode(201);
+
+        given().port(port)
+                .body(MovieDto.builder()
+                        .code("1234567891")
+                        .name("Movie 2")
+                        .isAvailable(true)
+                        .priceEur(new BigDecimal("12.1"))
+                        .build())
+                .contentType("application/json")
+                .header(MoviesController.IDEMPOTENCY_KEY_HEADER, "reused-key")
+                .when().accept("application/json")
+                .post("/movies")
+                .then().assertThat()
+                .statusCode(422);
+
+        assertEquals(1, movieRepository.count());
     }
 
     @Test
@@ -186,6 +278,7 @@ public class PostMovieIT {
     }
 
     @Test
+    @DirtiesContext(methodMode = DirtiesContext.MethodMode.BEFORE_METHOD)
     public void shouldReturn500_whenHNBisDown() {
         wireMockServer.resetMappings();
 
@@ -0,0 +1,162 @@
+package com.ingemark.movies.integration;
+
+import com.ingemark.movies.integration.configuration.ContainersConfig;
+import com.ingemark.movies.model.Movie;
+import com.ingemark.movies.repository.MovieRepository;
+import io.restassured.RestAssured;
+import io.restassured.http.ContentType;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.wiremock.spring.EnableWireMock;
+
+import java.math.BigDecimal;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static io.restassured.RestAssured.given;
+import static io.restassured.config.EncoderConfig.encoderConfig;
+import static io.restassured.config.RestAssuredConfig.newConfig;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles({"test", "integration"})
+@EnableWireMock
+@Testcontainers
+@Import(ContainersConfig.class)
+public class PostMoviesBulkIT {
+
+    @LocalServerPort
+    private Integer port;
+
+    @Autowired
+    private MovieRepository movieRepository;
+
+    @Value("${movies.bulk.batch-size}")
+    private int batchSize;
+
+    @BeforeAll
+    public static void setup() {
+        RestAssured.config = newConfig().encoderConfig(encoderConfig().encodeContentTypeAs("application/x-ndjson", ContentType.TEXT));
+    }
+
+    @BeforeEach
+    public void setupTest() {
+        movieRepository.deleteAll();
+    }
+
+    @Test
+    public void shouldImportJsonArray() {
+        var existing = new Movie();
+        existing.setCode("1234567890");
+        existing.setName("Existing");
+        existing.setPrice(BigDecimal.valueOf(10.1));
+        existing.setIsAvailable(true);
+        movieRepository.save(existing);
+
+        given().port(port)
+                .body("""
+                        [
+                          {"code":"1234567891","name":"Movie 1","price_eur":12.1,"is_available":true},
+                          {"code":"1234567890","name":"Movie 2","price_eur":13.1,"is_available":true},
+                          {"code":"123","name":"Movie 3","price_eur":14.1,"is_available":false},
+                          {"code":"1234567891","name":"Movie 4","price_eur":15.1,"is_available":false}
+                        ]
+                        """)
+                .contentType("application/json")
+                .when().accept("application/json")
+                .post("/movies/bulk")
+                .then().assertThat()
+                .statusCode(200)
+                .body("created", equalTo(1))
+                .body("duplicates", equalTo(2))
+                .body("invalid", equalTo(1))
+                .body("items.status", contains("CREATED", "DUPLICATE_CODE", "INVALID", "DUPLICATE_CODE"))
+                .body("items[0].id", notNullValue())
+                .body("items[2].errors", hasSize(1));
+
+        assertEquals(2, movieRepository.count());
+    }
+
+    @Test
+    public void shouldReportNullItemAsInvalid() {
+        given().port(port)
+                .body("""
+                        [
+                          {"code":"1234567890","name":"Movie 1","price_eur":12.1,"is_available":true},
+                          null,
+                          {"code":"1234567891","name":"Movie 2","price_eur":13.1,"is_available":true}
+                        ]
+                        """)
+                .contentType("application/json")
+                .when().accept("application/json")
+                .post("/movies/bulk")
+                .then().assertThat()
+                .statusCode(200)
+                .body("created", equalTo(2))
+                .body("invalid", equalTo(1))
+                .body("items.status", contains("CREATED", "INVALID", "CREATED"))
+                .body("items[1].errors", contains("item: must not be null"));
+
+        assertEquals(2, movieRepository.count());
+    }
+
+    @Test
+    public void shouldImportNdjsonStream() {
+        given().port(port)
+                .body("""
+                        {"code":"1234567890","name":"Movie 1","price_eur":12.1,"is_available":true}
+                        {"code":"1234567891","name":"Movie 2","price_eur":13.1,"is_available":false}
+                        """)
+                .contentType("application/x-ndjson")
+                .when().accept("application/json")
+                .post("/movies/bulk")
+                .then().assertThat()
+                .statusCode(200)
+                .body("created", equalTo(2));
+
+        assertEquals(2, movieRepository.count());
+    }
+
+    @Test
+    public void shouldReportCommittedItems_whenMalformedAfterFirstBatch() {
+        var body = IntStream.range(0, batchSize + 1)
+                .mapToObj(i -> "{\"code\":\"%010d\",\"name\":\"Movie %d\",\"price_eur\":12.1,\"is_available\":true}".formatted(i, i))
+                .collect(Collectors.joining("\n", "", "\n{\"code\": }\n"));
+
+        given().port(port)
+                .body(body)
+                .contentType("application/x-ndjson")
+                .when().accept("application/json")
+                .post("/movies/bulk")
+                .then().assertThat()
+                .statusCode(200)
+                .body("created", equalTo(batchSize + 1))
+                .body("invalid", equalTo(1))
+                .body("items", hasSize(batchSize + 2))
+                .body("items[-1].index", equalTo(batchSize + 1))
+                .body("items[-1].status", equalTo("MALFORMED"))
+                .body("items[-1].errors", hasSize(1));
+
+        assertEquals(batchSize + 1, movieRepository.count());
+    }
+
+    @Test
+    public void shouldRejectMalformedPayload() {
+        given().port(port)
+                .body("[{\"code\":\"1234567890\",")
+                .contentType("application/json")
+                .when().accept("application/json")
+                .post("/movies/bulk")
+                .then().assertThat()
+                .statusCode(400);
+    }
+}
@@ -0,0 +1,179 @@
+package com.ingemark.movies.integration;
+
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.ingemark.movies.integration.configuration.ReplicaContainersConfig;
+import com.ingemark.movies.model.dto.MovieDto;
+import com.ingemark.movies.repository.MovieRepository;
+import com.ingemark.movies.service.MovieCache;
+import com.ingemark.movies.service.MovieCodeFilter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.wiremock.spring.EnableWireMock;
+import org.wiremock.spring.InjectWireMock;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.regex.Pattern;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static io.restassured.RestAssured.given;
+import static org.awaitility.Awaitility.await;
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "movies.datasource.replica.enabled=true",
+        "movies.datasource.read-your-writes-window=PT1S"
+})
+@ActiveProfiles({"test", "integration"})
+@EnableWireMock
+@Testcontainers
+@Import(ReplicaContainersConfig.class)
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+@DirtiesContext
+public class ReplicaRoutingIT {
+
+    private static final String IN_RECOVERY = "SELECT pg_is_in_recovery()";
+
+    @LocalServerPort
+    private Integer port;
+
+    @Autowired
+    private MovieRepository movieRepository;
+
+    @Autowired
+    private MovieCache movieCache;
+
+    @Autowired
+    private MovieCodeFilter movieCodeFilter;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private GenericContainer<?> replica;
+
+    @InjectWireMock
+    private WireMockServer wireMockServer;
+
+    @BeforeEach
+    public void setupTest() {
+        wireMockServer.resetAll();
+        stubFor(get("/tecajn-eur/v3").willReturn(ok(
+                """
+                        [{"broj_tecajnice":"32","datum_primjene":"2025-02-14","drzava":"SAD","drzava_iso":"USA","kupovni_tecaj":"1,040600","prodajni_tecaj":"1,037400","sifra_valute":"840","srednji_tecaj":"1,039000","valuta":"USD"}]
+                        """)
+                .withHeader("Content-Type", "application/json")));
+        movieRepository.deleteAll();
+        movieCache.evictAll();
+    }
+
+    @Test
+    @Order(1)
+    public void shouldRouteReadOnlyTransactionsToReplica() {
+        assertFalse(inRecovery(false));
+        await().atMost(Duration.ofSeconds(5)).until(() -> inRecovery(true));
+    }
+
+    @Test
+    @Order(2)
+    public void shouldReadFromPrimary_withinReadYourWritesWindow() {
+        var id = given().port(port)
+                .body(MovieDto.builder()
+                        .code("1234567890")
+                        .name("Movie 1")
+                        .isAvailable(true)
+                        .priceEur(new BigDecimal("10.1"))
+                        .build())
+                .contentType("application/json")
+                .when().accept("application/json")
+                .post("/movies")
+                .then().assertThat()
+                .statusCode(201)
+                .extract().jsonPath().getString("id");
+        movieCache.evictAll();
+
+        assertFalse(inRecovery(true));
+        given().port(port)
+                .when().accept("application/json")
+                .get("/movies/" + id)
+                .then().assertThat()
+                .statusCode(200)
+                .body("code", equalTo("1234567890"));
+
+        await().atMost(Duration.ofSeconds(5)).until(() -> inRecovery(true));
+        given().port(port)
+                .when().accept("application/json")
+                .get("/movies")
+                .then().assertThat()
+                .statusCode(200)
+                .body("[0].id", equalTo(id));
+    }
+
+    @Test
+    @Order(3)
+    public void shouldCreateMovie_whenCodeCheckReadFromReplica() {
+        movieCodeFilter.put("1234567891");
+        await().atMost(Duration.ofSeconds(5)).until(() -> inRecovery(true));
+
+        given().port(port)
+                .body(MovieDto.builder()
+                        .code("1234567891")
+                        .name("Movie 2")
+                        .isAvailable(true)
+                        .priceEur(new BigDecimal("20.1"))
+                        .build())
+                .contentType("application/json")
+                .when().accept("application/json")
+                .post("/movies")
+                .then().assertThat()
+                .statusCode(201)
+                .body("code", equalTo("1234567891"));
+    }
+
+    @Test
+    @Order(Integer.MAX_VALUE)
+    public void shouldFallBackToPrimary_whenReplicaDown() {
+        await().atMost(Duration.ofSeconds(5)).until(() -> inRecovery(true));
+        replica.stop();
+
+        assertFalse(inRecovery(true));
+        given().port(port)
+                .when().accept("application/json")
+                .get("/movies")
+                .then().assertThat()
+                .statusCode(200);
+        assertTrue(Pattern.compile("^movies_datasource_replica_fallbacks_total\\{.*} [1-9]", Pattern.MULTILINE)
+                .matcher(given().port(port)
+                        .when().accept("text/plain")
+                        .get("/actuator/prometheus")
+                        .then().assertThat()
+                        .statusCode(200)
+                        .extract().asString())
+                .find());
+    }
+
+    private boolean inRecovery(boolean readOnly) {
+        var template = new TransactionTemplate(transactionManager);
+        template.setReadOnly(readOnly);
+        return template.execute(status -> jdbcTemplate.queryForObject(IN_RECOVERY, Boolean.class));
+    }
+}
@@ -0,0 +1,70 @@
+package com.ingemark.movies.integration.configuration;
+
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Profile;
+import org.springframework.test.context.DynamicPropertyRegistrar;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.containers.Network;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.containers.wait.strategy.Wait;
+import org.testcontainers.images.builder.Transferable;
+
+import java.time.Duration;
+
+/**
+ * A primary and a streaming replica cloned from it with {@code pg_basebackup}, for tests of the read/write routing.
+ * Use instead of {@link ContainersConfig}.
+ */
+@TestConfiguration
+@Profile("integration")
+public class ReplicaContainersConfig {
+
+    private static final String IMAGE = "postgres:17.2";
+    private static final String PRIMARY_ALIAS = "primary";
+
+    @Bean
+    public Network network() {
+        return Network.newNetwork();
+    }
+
+    @Bean
+    @ServiceConnection
+    public PostgreSQLContainer<?> postgres(Network network) {
+        return new PostgreSQLContainer<>(IMAGE)
+                .withNetwork(network)
+                .withNetworkAliases(PRIMARY_ALIAS)
+                .withCommand("postgres", "-c", "fsync=off", "-c", "wal_level=replica", "-c", "max_wal_senders=4")
+                .withCopyToContainer(Transferable.of("""
+                        echo "host replication all all scram-sha-256" >> "$PGDATA/pg_hba.conf"
+                        """, 0755), "/docker-entrypoint-initdb.d/replication.sh");
+    }
+
+    @Bean
+    public GenericContainer<?> replica(Network network, PostgreSQLContainer<?> postgres) {
+        var conninfo = "host=%s user=%s password=%s".formatted(PRIMARY_ALIAS, postgres.getUsername(), postgres.getPassword());
+        return new GenericContainer<>(IMAGE)
+                .dependsOn(postgres)
+                .withNetwork(network)
+                .withExposedPorts(PostgreSQLContainer.POSTGRESQL_PORT)
+                .withCommand("bash", "-c", """
+                        until gosu postgres pg_basebackup -d "%s" -D "$PGDATA/replica" -R -X stream; do
+                          rm -rf "$PGDATA/replica"; sleep 1
+                        done
+                        exec gosu postgres postgres -D "$PGDATA/replica"
+                        """.formatted(conninfo))
+                .waitingFor(Wait.forLogMessage(".*ready to accept read-only connections.*", 1)
+                        .withStartupTimeout(Duration.ofMinutes(1)));
+    }
+
+    @Bean
+    public DynamicPropertyRegistrar replicaProperties(GenericContainer<?> replica, PostgreSQLContainer<?> postgres) {
+        return registry -> {
+            registry.add("movies.datasource.replica.url", () -> "jdbc:postgresql://%s:%d/%s".formatted(
+                    replica.getHost(), replica.getMappedPort(PostgreSQLContainer.POSTGRESQL_PORT), postgres.getDatabaseName()));
+            registry.add("movies.datasource.replica.username", postgres::getUsername);
+            registry.add("movies.datasource.replica.password", postgres::getPassword);
+        };
+    }
+}
@@ -0,0 +1,34 @@
+package com.ingemark.movies.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class UuidV7GeneratorTest {
+
+    @Test
+    void shouldGenerateVersion7WithCurrentTimestamp() {
+        var before = Instant.now().toEpochMilli();
+        var uuid = UuidV7Generator.next();
+
+        assertEquals(7, uuid.version());
+        assertEquals(2, uuid.variant());
+        var timestamp = uuid.getMostSignificantBits() >>> 16;
+        assertTrue(timestamp >= before && timestamp - before < Duration.ofSeconds(5).toMillis());
+    }
+
+    @Test
+    void shouldIncreaseStrictly_withinSameMillisecond() {
+        var previous = UuidV7Generator.next();
+        for (int i = 0; i < 100_000; i++) {
+            var next = UuidV7Generator.next();
+            assertTrue(Long.compareUnsigned(next.getMostSignificantBits(), previous.getMostSignificantBits()) > 0,
+                    previous + " >= " + next);
+            previous = next;
+        }
+    }
+}
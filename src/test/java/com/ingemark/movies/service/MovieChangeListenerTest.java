@@ -0,0 +1,82 @@
+package com.ingemark.movies.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ingemark.movies.model.Movie;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MovieChangeListenerTest {
+
+    private final MovieCache movieCache = new MovieCache(100, Duration.ofMinutes(10), new SimpleMeterRegistry());
+    private final MovieCodeFilter movieCodeFilter = new MovieCodeFilter(100, 0.01);
+    private final MovieChangeListener listener = new MovieChangeListener(null, null, null, movieCache, movieCodeFilter,
+            new ObjectMapper(), Duration.ofSeconds(1), new SimpleMeterRegistry());
+
+    @Test
+    void shouldOnlyRecordCode_onInsert() {
+        var movie = cache("1234567890");
+
+        listener.apply("""
+                {"op":"INSERT","id":"%s","code":"1234567891"}""".formatted(UUID.randomUUID()));
+
+        assertTrue(isCached(movie));
+        assertTrue(movieCodeFilter.mightContain("1234567891"));
+    }
+
+    @Test
+    void shouldEvictOldAndNewCode_onUpdate() {
+        var movie = cache("1234567890");
+
+        listener.apply("""
+                {"op":"UPDATE","id":"%s","code":"1234567891","old_code":"1234567890"}""".formatted(movie.getId()));
+
+        assertFalse(isCached(movie));
+        assertFalse(movieCache.getByCode("1234567890", code -> Optional.empty()).isPresent());
+        assertTrue(movieCodeFilter.mightContain("1234567891"));
+    }
+
+    @Test
+    void shouldEvict_onDelete() {
+        var movie = cache("1234567890");
+
+        listener.apply("""
+                {"op":"DELETE","id":"%s","old_code":"1234567890"}""".formatted(movie.getId()));
+
+        assertFalse(isCached(movie));
+    }
+
+    @Test
+    void shouldEvictAll_onTruncateOrUnreadablePayload() {
+        var movie = cache("1234567890");
+        listener.apply("""
+                {"op":"TRUNCATE"}""");
+        assertFalse(isCached(movie));
+
+        movie = cache("1234567890");
+        listener.apply("not json");
+        assertFalse(isCached(movie));
+    }
+
+    private Movie cache(String code) {
+        var movie = new Movie();
+        movie.setId(UUID.randomUUID());
+        movie.setCode(code);
+        movie.setName("Movie 1");
+        movie.setPrice(BigDecimal.valueOf(10.1));
+        movie.setIsAvailable(true);
+        movieCache.put(movie);
+        return movie;
+    }
+
+    private boolean isCached(Movie movie) {
+        return movieCache.getById(movie.getId(), id -> Optional.empty()).isPresent();
+    }
+}
@@ -0,0 +1,46 @@
+package com.ingemark.movies.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.Executor;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MovieCodeFilterTest {
+
+    @Test
+    void shouldContainEveryCodePut() {
+        var filter = new MovieCodeFilter(10_000, 0.01);
+        IntStream.range(0, 10_000).forEach(i -> filter.put("%010d".formatted(i)));
+
+        IntStream.range(0, 10_000).forEach(i -> assertTrue(filter.mightContain("%010d".formatted(i))));
+    }
+
+    @Test
+    void shouldKeepFalsePositivesNearConfiguredRate() {
+        var filter = new MovieCodeFilter(10_000, 0.01);
+        IntStream.range(0, 10_000).forEach(i -> filter.put("%010d".formatted(i)));
+
+        var falsePositives = IntStream.range(10_000, 110_000)
+                .filter(i -> filter.mightContain("%010d".formatted(i)))
+                .count();
+        assertTrue(falsePositives < 2_000, "false positives: " + falsePositives);
+    }
+
+    @Test
+    void shouldNotContainCode_whenEmpty() {
+        assertFalse(new MovieCodeFilter(10_000, 0.01).mightContain("1234567890"));
+    }
+
+    @Test
+    void shouldMightContainEveryCode_untilLoaded() {
+        Executor neverRuns = command -> {
+        };
+        var filter = new MovieCodeFilter(10_000, 0.01, null, null, neverRuns);
+        filter.load();
+
+        assertTrue(filter.mightContain("1234567890"));
+    }
+}
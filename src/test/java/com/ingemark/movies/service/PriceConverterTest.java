@@ -0,0 +1,70 @@
+package com.ingemark.movies.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class PriceConverterTest {
+
+    @Test
+    void shouldConvertToFixedScale() {
+        var rates = new PriceConverter(2, RoundingMode.HALF_EVEN).ratesFor(snapshot(new BigDecimal("1.039000")));
+
+        assertEquals(new BigDecimal("10.49"), rates.convert("USD", new BigDecimal("10.1")));
+        assertEquals(new BigDecimal("10.39"), rates.convert("USD", BigDecimal.TEN));
+        assertNull(rates.convert("GBP", BigDecimal.TEN));
+    }
+
+    @Test
+    void shouldReuseRates_whileSnapshotIsCurrent() {
+        var converter = new PriceConverter(2, RoundingMode.HALF_EVEN);
+        var snapshot = snapshot(new BigDecimal("1.039000"));
+
+        assertSame(converter.ratesFor(snapshot), converter.ratesFor(snapshot));
+    }
+
+    @Test
+    void shouldReuseRates_forEqualSnapshotsAndAcrossDates() {
+        var converter = new PriceConverter(2, RoundingMode.HALF_EVEN);
+        var current = snapshot(new BigDecimal("1.039000"));
+        var past = new RateSnapshot(Map.of("USD", new BigDecimal("1.05")), LocalDate.of(2025, 1, 9), Instant.now());
+
+        var currentRates = converter.ratesFor(current);
+        var pastRates = converter.ratesFor(past);
+
+        assertSame(currentRates, converter.ratesFor(new RateSnapshot(current.rates(), current.date(), current.fetchedAt())));
+        assertSame(pastRates, converter.ratesFor(new RateSnapshot(past.rates(), past.date(), past.fetchedAt())));
+        assertSame(currentRates, converter.ratesFor(current));
+    }
+
+    @ParameterizedTest
+    @EnumSource(value = RoundingMode.class, names = "UNNECESSARY", mode = EnumSource.Mode.EXCLUDE)
+    void shouldMatchBigDecimalArithmetic(RoundingMode roundingMode) {
+        var random = new Random(42);
+        for (int i = 0; i < 10_000; i++) {
+            var rate = BigDecimal.valueOf(random.nextLong() % 100_000_000_000L, random.nextInt(8));
+            var amount = BigDecimal.valueOf(random.nextLong() % (i % 2 == 0 ? 100_000L : Long.MAX_VALUE), random.nextInt(6) - 1);
+            var scale = random.nextInt(5);
+
+            var rates = new PriceConverter.Rates(snapshot(rate), scale, roundingMode);
+
+            assertEquals(rate.multiply(amount).setScale(scale, roundingMode), rates.convert("USD", amount),
+                    () -> rate + " * " + amount);
+        }
+    }
+
+    private static RateSnapshot snapshot(BigDecimal usd) {
+        return new RateSnapshot(Map.of("USD", usd), LocalDate.of(2025, 2, 14), Instant.now());
+    }
+}
@@ -0,0 +1,50 @@
+package com.ingemark.movies.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+
+class SingleFlightTest {
+
+    private final SingleFlight<String, String> singleFlight = new SingleFlight<>();
+
+    @Test
+    void shouldReleaseWaitersAndKey_whenCallThrowsError() {
+        var started = new CountDownLatch(1);
+        var release = new CountDownLatch(1);
+
+        assertTimeoutPreemptively(Duration.ofSeconds(5), () -> {
+            try (var executor = Executors.newFixedThreadPool(2)) {
+                var leader = executor.submit(() -> singleFlight.execute("key", () -> {
+                    started.countDown();
+                    await(release);
+                    throw new StackOverflowError();
+                }));
+                started.await();
+                var waiter = executor.submit(() -> singleFlight.execute("key", () -> "not shared"));
+                // the waiter only shares the failure if it joined before the leader finished
+                Thread.sleep(100);
+                release.countDown();
+
+                assertEquals(StackOverflowError.class, assertThrows(Exception.class, leader::get).getCause().getClass());
+                assertEquals(StackOverflowError.class, assertThrows(Exception.class, waiter::get).getCause().getClass());
+            }
+        });
+
+        assertEquals("value", singleFlight.execute("key", () -> "value"));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}